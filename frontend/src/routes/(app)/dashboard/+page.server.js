@@ -3,6 +3,21 @@ import { error} from '@sveltejs/kit';
 // Load environment variables from .env file for local development
 import 'dotenv/config';
 const API_BASE_URL = process.env.API_BASE_URL; // defined in .env file
+// Largest page the backend serves (LessonService.MAX_PAGE_SIZE)
+const LESSON_PAGE_SIZE = 200;
+
+// GET /api/lesson is paginated: follow the X-Next-Cursor header until the last page
+async function loadAllLessons(headers) {
+    const lessons = [];
+    let next = null;
+    do {
+        const params = next ? { limit: LESSON_PAGE_SIZE, next } : { limit: LESSON_PAGE_SIZE };
+        const res = await axios.get(`${API_BASE_URL}/api/lesson`, { headers, params });
+        lessons.push(...res.data);
+        next = res.headers['x-next-cursor'];
+    } while (next);
+    return lessons;
+}
 
 /** @type {import('./$types').PageServerLoad} */
 export async function load({ locals }) {
@@ -14,14 +29,14 @@ export async function load({ locals }) {
 
     try {
         // Load subjects and lessons in parallel for performance
-        const [subjectsRes, lessonsRes] = await Promise.all([
+        const [subjectsRes, lessons] = await Promise.all([
             axios.get(`${API_BASE_URL}/api/subject`, { headers }),
-            axios.get(`${API_BASE_URL}/api/lesson`, { headers })
+            loadAllLessons(headers)
         ]);
 
         return {
             subjects: subjectsRes.data,
-            lessons: lessonsRes.data
+            lessons
         };
 
     } catch (error) {
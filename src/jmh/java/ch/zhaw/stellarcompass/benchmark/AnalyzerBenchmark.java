@@ -0,0 +1,82 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.zhaw.stellarcompass.search.AnalyzerPipeline;
+import ch.zhaw.stellarcompass.search.TextAnalyzer;
+
+// Tokenization throughput of the lesson search analyzers (see SearchConfig) on lesson-sized texts:
+// Dari/Pashto with mixed keyboard variants, and the German corpus of the other benchmarks.
+// One operation is one text of 2000 characters, so ops/ms * 2 is million characters per second.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=AnalyzerBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+    private static final int TEXTS = 100;
+    private static final int LENGTH = 2000;
+
+    @Param({ "dari-pashto", "latin" })
+    private String corpus;
+
+    private final TextAnalyzer standard = AnalyzerPipeline.standard();
+    private final TextAnalyzer dariPashto = AnalyzerPipeline.dariPashto();
+    private List<String> texts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        texts = new ArrayList<>(TEXTS);
+        for (int i = 0; i < TEXTS; i++) {
+            texts.add("dari-pashto".equals(corpus)
+                    ? BenchmarkData.dariPashtoText(i, LENGTH)
+                    : BenchmarkData.latinText(i, LENGTH));
+        }
+    }
+
+    // Lower case only: fast, but splits words at diacritics and ZWNJ
+    @Benchmark
+    @OperationsPerInvocation(TEXTS)
+    public void standard(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(standard.analyze(text));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXTS)
+    public void dariPashto(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(dariPashto.analyze(text));
+        }
+    }
+
+    // Query time: compounds are not split into parts
+    @Benchmark
+    @OperationsPerInvocation(TEXTS)
+    public void dariPashtoQuery(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(dariPashto.analyzeQuery(text));
+        }
+    }
+}
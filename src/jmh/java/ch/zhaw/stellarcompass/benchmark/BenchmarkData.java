@@ -0,0 +1,113 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+
+// Fixed-seed sample data shared by the benchmarks, shaped like the production documents
+// (a few hundred to a few thousand characters of lesson content, every fifth lesson a video)
+final class BenchmarkData {
+
+    private static final String[] WORDS = {
+        "Mathematik", "Gleichung", "Variable", "Funktion", "Grafik", "Physik", "Energie", "Kraft",
+        "Lösung", "Beispiel", "Übung", "Aufgabe", "Regel", "Wert", "Zahl", "Geschichte", "Sprache"
+    };
+
+    // Dari and Pashto as typed on a Persian/Pashto keyboard, compounds with a zero-width non-joiner
+    private static final String[] DARI_PASHTO_WORDS = {
+        "کتاب", "مکتب", "درس", "شاگرد", "استاد", "زبان", "ریاضی", "تاریخ", "جغرافیه", "علوم",
+        "صحت", "خانواده", "آب", "باغ", "بازار", "قریه", "نامه", "سوال", "جواب", "مثال",
+        "تمرین", "داستان", "یادگیری", "دانش", "معلم", "افغانستان", "کابل", "هرات", "و", "در",
+        "از", "به", "که", "این", "با", "را", "است",
+        "ښوونځی", "کتابونه", "ژبه", "لوست", "ښوونکی", "روغتیا", "کورنۍ", "اوبه", "کلی", "لیک",
+        "پوښتنه", "ځواب", "بېلګه", "کیسه", "زده", "کوونکی", "د", "او", "په", "ته",
+        "چې", "دی",
+        "کتاب\u200Cها", "درس\u200Cها", "می\u200Cخوانیم", "می\u200Cنویسیم", "شاگردان\u200Cمان", "زده\u200Cکړه",
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Subject> subjects(int count) {
+        List<Subject> subjects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Subject subject = new Subject("Subject " + i, text(new SplittableRandom(i), 120));
+            subject.setId(new ObjectId().toHexString());
+            subjects.add(subject);
+        }
+        return subjects;
+    }
+
+    static List<Lesson> lessons(int count) {
+        List<Lesson> lessons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Document document = lessonDocument(i);
+            Lesson lesson = new Lesson(document.getString("title"), document.getString("content"),
+                    document.getString("subjectId"));
+            lesson.setId(document.getObjectId("_id").toHexString());
+            lesson.setVideoUrl(document.getString("videoUrl"));
+            lesson.setContentType(document.getString("contentType"));
+            lessons.add(lesson);
+        }
+        return lessons;
+    }
+
+    // The lesson as it is stored in the "lessons" collection
+    static Document lessonDocument(int index) {
+        SplittableRandom random = new SplittableRandom(index);
+        boolean video = index % 5 == 0;
+        Document document = new Document("_id", new ObjectId())
+                .append("title", "Lesson " + index)
+                .append("content", text(random, random.nextInt(300, 3000)))
+                .append("contentType", video ? "VIDEO" : "TEXT")
+                .append("subjectId", "65f0c0ffee0123456789ab" + String.format("%02d", index % 10))
+                .append("_class", Lesson.class.getName());
+        if (video) {
+            document.append("videoUrl", "https://youtube.com/watch?v=lesson" + index);
+        }
+        return document;
+    }
+
+    // Lesson text from the German words of the other benchmarks
+    static String latinText(int index, int length) {
+        return text(new SplittableRandom(index), length);
+    }
+
+    // Dari/Pashto lesson text with the variants of other keyboards and writers: every fifth word
+    // has Arabic yeh/kaf, a diacritic, a tatweel or its ZWNJ left out; sentences end with a period
+    // or an Arabic question mark, with Persian digits in between
+    static String dariPashtoText(int index, int length) {
+        SplittableRandom random = new SplittableRandom(index);
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            String word = DARI_PASHTO_WORDS[random.nextInt(DARI_PASHTO_WORDS.length)];
+            if (random.nextInt(5) == 0) {
+                word = switch (random.nextInt(5)) {
+                    case 0 -> word.replace('\u06CC', '\u064A'); // Arabic yeh
+                    case 1 -> word.replace('\u06A9', '\u0643'); // Arabic kaf
+                    case 2 -> word.charAt(0) + "\u064E" + word.substring(1); // fatha
+                    case 3 -> word.charAt(0) + "\u0640" + word.substring(1); // tatweel
+                    default -> word.replace("\u200C", ""); // joined
+                };
+            }
+            text.append(word);
+            int next = random.nextInt(12);
+            text.append(next == 0 ? ". " : next == 1 ? "\u061F " : next == 2 ? " \u06F1\u06F2 " : " ");
+        }
+        return text.substring(0, length);
+    }
+
+    private static String text(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
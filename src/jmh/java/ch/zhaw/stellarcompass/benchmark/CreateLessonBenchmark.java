@@ -0,0 +1,84 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.repository.LessonRepository;
+import ch.zhaw.stellarcompass.repository.SubjectRepository;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+import ch.zhaw.stellarcompass.service.LessonService;
+
+// LessonService.createLesson without the database: the repositories are stubs that answer immediately,
+// so only the DTO-to-entity mapping, the service call itself and the update of the search index are measured.
+// "fromJson" includes reading the request body into the DTO, as the controller receives it.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=CreateLessonBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateLessonBenchmark {
+
+    private LessonService lessonService;
+    private ObjectReader dtoReader;
+    private byte[] body;
+    private LessonCreateDTO dto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        lessonService = new LessonService();
+        ReflectionTestUtils.setField(lessonService, "subjectRepository", stub(SubjectRepository.class, true));
+        ReflectionTestUtils.setField(lessonService, "lessonRepository", stub(LessonRepository.class, null));
+        ReflectionTestUtils.setField(lessonService, "lessonIndex", new LessonIndex());
+
+        dtoReader = Jackson2ObjectMapperBuilder.json().build().readerFor(LessonCreateDTO.class);
+        Lesson sample = BenchmarkData.lessons(1).get(0);
+        body = ("{\"title\":\"" + sample.getTitle() + "\",\"content\":\"" + sample.getContent()
+                + "\",\"videoUrl\":\"" + sample.getVideoUrl() + "\",\"contentType\":\"" + sample.getContentType()
+                + "\",\"subjectId\":\"" + sample.getSubjectId() + "\"}").getBytes();
+        dto = dtoReader.readValue(body);
+    }
+
+    @Benchmark
+    public Lesson createLesson() {
+        return lessonService.createLesson(dto);
+    }
+
+    @Benchmark
+    public Lesson fromJson() throws Exception {
+        return lessonService.createLesson(dtoReader.readValue(body));
+    }
+
+    // existsById answers with existsResult, save hands back its argument with an id.
+    // The id is always the same, so every create replaces the lesson in the index and the index does not grow.
+    private static <T> T stub(Class<T> repository, Object existsResult) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[] { repository },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "existsById" -> existsResult;
+                    case "save" -> {
+                        ((Lesson) args[0]).setId("benchmark-lesson");
+                        yield args[0];
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
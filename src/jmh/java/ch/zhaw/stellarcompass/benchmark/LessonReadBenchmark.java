@@ -0,0 +1,84 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+
+// MappingMongoConverter turning stored lesson documents into Lesson entities, without a database:
+// the cost every repository read pays on top of the network round trip.
+// A page has the size of LessonService.DEFAULT_PAGE_SIZE.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=LessonReadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonReadBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private MappingMongoConverter converter;
+    private Document lessonDocument;
+    private Document videoDocument;
+    private List<Document> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same setup as Spring Boot's auto-configuration, minus the database
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.setInitialEntitySet(Set.of(Lesson.class));
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        lessonDocument = BenchmarkData.lessonDocument(1);
+        videoDocument = BenchmarkData.lessonDocument(0);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(BenchmarkData.lessonDocument(i));
+        }
+    }
+
+    @Benchmark
+    public Lesson readLesson() {
+        return converter.read(Lesson.class, lessonDocument);
+    }
+
+    @Benchmark
+    public Lesson readVideoLesson() {
+        return converter.read(Lesson.class, videoDocument);
+    }
+
+    @Benchmark
+    public List<Lesson> readPage() {
+        List<Lesson> lessons = new ArrayList<>(PAGE_SIZE);
+        for (Document document : page) {
+            lessons.add(converter.read(Lesson.class, document));
+        }
+        return lessons;
+    }
+}
@@ -0,0 +1,164 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+// The in-process LessonIndex against the MongoDB text index (the pipeline of LessonService.searchLessons),
+// both returning the best 10 hits for the same corpus.
+// The MongoDB side (mongo*) needs a real server, the in-memory stand-in has no $text. It is excluded by default
+// (jmh.exclude in the pom) and uses the database "stellarcompass-benchmark" of -Dbenchmark.mongodb.uri.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=LessonSearchBenchmark
+// With MongoDB: ... -Djmh.exclude=^$ -Dbenchmark.mongodb.uri=mongodb://localhost:27017
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonSearchBenchmark {
+
+    private static final int HITS = 10;
+
+    @Param({"10000"})
+    private int lessons;
+
+    private LessonIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new LessonIndex();
+        BenchmarkData.lessons(lessons).forEach(index::index);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Mongo {
+
+        private MongoClient client;
+        private MongoCollection<Document> collection;
+
+        @Setup(Level.Trial)
+        public void setUp(LessonSearchBenchmark benchmark) {
+            String uri = System.getProperty("benchmark.mongodb.uri");
+            if (uri == null || uri.isBlank()) {
+                throw new IllegalStateException("Set -Dbenchmark.mongodb.uri to a MongoDB server with text search");
+            }
+            client = MongoClients.create(uri);
+            collection = client.getDatabase("stellarcompass-benchmark").getCollection("lessons");
+            collection.drop();
+            // Same text index as @TextIndexed on Lesson
+            collection.createIndex(new Document("title", "text").append("content", "text"),
+                    new IndexOptions()
+                            .weights(new Document("title", LessonIndex.TITLE_WEIGHT).append("content", 1))
+                            .defaultLanguage("none"));
+            List<Document> documents = new ArrayList<>(benchmark.lessons);
+            for (int i = 0; i < benchmark.lessons; i++) {
+                documents.add(BenchmarkData.lessonDocument(i));
+                if (documents.size() == 1000) {
+                    collection.insertMany(documents);
+                    documents.clear();
+                }
+            }
+            if (!documents.isEmpty()) {
+                collection.insertMany(documents);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            collection.drop();
+            client.close();
+        }
+
+        List<Document> search(String query) {
+            return collection.aggregate(List.of(
+                    new Document("$match", new Document("$text", new Document("$search", query))),
+                    new Document("$project", new Document("title", 1).append("subjectId", 1).append("contentType", 1)
+                            .append("videoUrl", 1).append("score", new Document("$meta", "textScore"))),
+                    new Document("$sort", new Document("score", -1).append("_id", 1)),
+                    new Document("$limit", HITS))).into(new ArrayList<>());
+        }
+    }
+
+    @Benchmark
+    public List<LessonSearchHitDTO> indexWord() {
+        return index.search("gleichung ", null, HITS);
+    }
+
+    @Benchmark
+    public List<LessonSearchHitDTO> indexTwoWords() {
+        return index.search("physik gleichung ", null, HITS);
+    }
+
+    // As typed: the last word is still incomplete
+    @Benchmark
+    public List<LessonSearchHitDTO> indexPrefix() {
+        return index.search("physik glei", null, HITS);
+    }
+
+    // $text has no prefix queries, complete words only (and any of them matches, not all)
+    @Benchmark
+    public List<Document> mongoWord(Mongo mongo) {
+        return mongo.search("gleichung");
+    }
+
+    @Benchmark
+    public List<Document> mongoTwoWords(Mongo mongo) {
+        return mongo.search("physik gleichung");
+    }
+
+    // Indexing one lesson, the cost LessonService adds to every create and update
+    @Benchmark
+    public LessonIndex indexLesson(LessonState state) {
+        index.index(state.next());
+        return index;
+    }
+
+    @State(Scope.Thread)
+    public static class LessonState {
+
+        private List<Lesson> lessons;
+        private int position;
+        private long version;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            lessons = BenchmarkData.lessons(100);
+        }
+
+        // Re-indexes the same lessons with growing versions, the index size stays constant
+        Lesson next() {
+            Lesson lesson = lessons.get(position);
+            lesson.setVersion(version);
+            position = (position + 1) % lessons.size();
+            if (position == 0) {
+                version++;
+            }
+            return lesson;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+
+// Jackson serialization of the list responses, with the ObjectMapper configured like Spring MVC's.
+// "mapper" goes through ObjectMapper.writeValueAsBytes on every call (as the message converter does),
+// "writer" reuses an ObjectWriter bound to the list type.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=SerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter lessonsWriter;
+    private List<Lesson> lessons;
+    private List<Subject> subjects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        lessonsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Lesson.class));
+        lessons = BenchmarkData.lessons(size);
+        subjects = BenchmarkData.subjects(size);
+    }
+
+    @Benchmark
+    public byte[] lessonsMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lessons);
+    }
+
+    @Benchmark
+    public byte[] lessonsWriter() throws JsonProcessingException {
+        return lessonsWriter.writeValueAsBytes(lessons);
+    }
+
+    @Benchmark
+    public byte[] subjectsMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(subjects);
+    }
+}
@@ -0,0 +1,85 @@
+package ch.zhaw.stellarcompass.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import ch.zhaw.stellarcompass.security.UserRolesAuthenticationConverter;
+import ch.zhaw.stellarcompass.service.UserService;
+
+// The role check as the controllers do it: userHasRole("ADMIN") and then userHasRole("MENTOR").
+// "claim" is the JWT as authenticated by default (the claim is read and scanned on every call),
+// "parsed" is the authentication from UserRolesAuthenticationConverter.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.include=UserHasRoleBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserHasRoleBenchmark {
+
+    @Param({ "claim", "parsed" })
+    private String authentication;
+
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // A realistic Auth0 access token of a mentor (the worst case for ADMIN || MENTOR is a student)
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .header("kid", "benchmark")
+                .issuer("https://example.auth0.com/")
+                .subject("auth0|65f0c0ffee0123456789abcd")
+                .audience(List.of("https://stellarcompass/api", "https://example.auth0.com/userinfo"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("azp", "benchmark-client")
+                .claim("scope", "openid profile email")
+                .claim("email", "mentor@stellar.com")
+                .claim("user_roles", List.of("STUDENT", "MENTOR"))
+                .build();
+
+        JwtAuthenticationToken token = "parsed".equals(authentication)
+                ? (JwtAuthenticationToken) new UserRolesAuthenticationConverter().convert(jwt)
+                : new JwtAuthenticationToken(jwt);
+        SecurityContextHolder.getContext().setAuthentication(token);
+
+        // userHasRole does not use the repository
+        userService = new UserService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean adminOrMentor() {
+        return userService.userHasRole("ADMIN") || userService.userHasRole("MENTOR");
+    }
+
+    @Benchmark
+    public boolean admin() {
+        return userService.userHasRole("ADMIN");
+    }
+}
@@ -0,0 +1,13 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.model.UserRole;
+
+// What the generated requests refer to: the seeded documents and a signed token per user
+record Dataset(List<Subject> subjects, List<String> lessonIds, Map<UserRole, List<User>> users,
+        Map<String, String> tokens) {
+}
@@ -0,0 +1,50 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.MongoVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+// In-memory MongoDB stand-in (mongo-java-server) on a free local port.
+// It announces itself as MongoDB 6.0, the current Java driver refuses the older default versions.
+// The numbers it produces are not those of a real server: use it to compare application changes, not to size a cluster.
+final class EmbeddedMongo implements AutoCloseable {
+
+    private static final MongoVersion VERSION = new MongoVersion() {
+        @Override
+        public List<Integer> getVersionArray() {
+            return List.of(6, 0, 0);
+        }
+
+        @Override
+        public int getWireVersion() {
+            return 17;
+        }
+
+        @Override
+        public String toVersionString() {
+            return "6.0.0";
+        }
+    };
+
+    private final MongoServer server;
+    private final InetSocketAddress address;
+
+    EmbeddedMongo() {
+        MemoryBackend backend = new MemoryBackend();
+        backend.version(VERSION);
+        server = new MongoServer(backend);
+        address = server.bind();
+    }
+
+    String uri() {
+        return "mongodb://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Latencies of one operation in nanoseconds. Every worker records into its own instance (no locking
+// on the hot path), the instances are merged after the run.
+final class Latencies {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos, boolean error) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void addAll(Latencies other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // count, errors, requests per second and the percentiles in milliseconds
+    Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("requestsPerSecond", round(count / seconds));
+        summary.put("p50", millis(sorted, 0.50));
+        summary.put("p99", millis(sorted, 0.99));
+        summary.put("p999", millis(sorted, 0.999));
+        summary.put("max", millis(sorted, 1.0));
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return round(sorted[Math.max(0, rank - 1)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
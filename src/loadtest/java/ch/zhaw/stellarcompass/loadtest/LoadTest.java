@@ -0,0 +1,228 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import ch.zhaw.stellarcompass.StellarcompassApplication;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.reactive.ReactiveStellarcompassApplication;
+import ch.zhaw.stellarcompass.runner.SyntheticDataGenerator;
+
+/**
+ * Throughput and latency of the real REST stack (security filter chain, controllers, services, caches,
+ * MongoDB driver) under a mixed student/mentor/admin load, without Auth0 or a hosted MongoDB.
+ * <ol>
+ * <li>starts an in-memory MongoDB (EmbeddedMongo) and seeds it with the SyntheticDataGenerator,</li>
+ * <li>boots the application on a free port with a JwtDecoder for locally signed tokens (LocalJwtIssuer),</li>
+ * <li>runs closed-loop workers on virtual threads (each sends its next request when the last one is answered),
+ * first for the warmup, then for the measured duration,</li>
+ * <li>prints p50/p99/p999 latencies and requests per second per operation and writes them as JSON.</li>
+ * </ol>
+ * Settings (system properties): loadtest.concurrency, loadtest.warmup and loadtest.duration (seconds),
+ * loadtest.profiles (e.g. "virtual-threads" or "reactive" for the WebFlux variant), loadtest.result (JSON file).
+ * Run with: mvn -Ploadtest test-compile exec:exec
+ */
+public class LoadTest {
+
+    private static final int SUBJECTS = 50;
+    private static final int LESSONS_PER_SUBJECT = 20;
+    private static final int USERS = 500;
+
+    public static void main(String[] args) throws Exception {
+        // devtools is on the classpath: its restarter would run main a second time in a new class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+        List<String> profiles = Arrays.stream(System.getProperty("loadtest.profiles", "").split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isEmpty())
+                .toList();
+        File result = new File(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+        boolean reactive = profiles.contains(ReactiveStellarcompassApplication.PROFILE);
+
+        try (EmbeddedMongo mongo = new EmbeddedMongo()) {
+            LocalJwtIssuer issuer = new LocalJwtIssuer();
+            Dataset data = seed(mongo, issuer);
+
+            try (ConfigurableApplicationContext application = start(mongo, issuer, profiles, reactive)) {
+                String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+                Traffic traffic = new Traffic(baseUrl, data, reactive);
+
+                System.out.printf("Warmup: %d workers for %ds%n", concurrency, warmup.toSeconds());
+                drive(traffic, concurrency, warmup);
+                System.out.printf("Measuring: %d workers for %ds%n", concurrency, duration.toSeconds());
+                Map<String, Latencies> latencies = drive(traffic, concurrency, duration);
+
+                report(latencies, profiles, concurrency, duration, result);
+            }
+        }
+    }
+
+    // Fills the database with the SyntheticDataGenerator (a short-lived context without a web server)
+    // and signs a token for every generated user
+    private static Dataset seed(EmbeddedMongo mongo, LocalJwtIssuer issuer) {
+        try (ConfigurableApplicationContext seeder = new SpringApplicationBuilder(StellarcompassApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(SyntheticDataGenerator.PROFILE)
+                .initializers(registerJwtDecoder(issuer, false))
+                .run(arguments(mongo,
+                        "--stellarcompass.synthetic-data.subjects=" + SUBJECTS,
+                        "--stellarcompass.synthetic-data.lessons-per-subject=" + LESSONS_PER_SUBJECT,
+                        "--stellarcompass.synthetic-data.users=" + USERS,
+                        "--stellarcompass.synthetic-data.drop-existing=true"))) {
+            MongoTemplate mongoTemplate = seeder.getBean(MongoTemplate.class);
+
+            Query ids = new Query();
+            ids.fields().include("_id");
+            List<String> lessonIds = mongoTemplate.find(ids, Lesson.class).stream().map(Lesson::getId).toList();
+            List<User> users = mongoTemplate.findAll(User.class);
+            Map<String, String> tokens = new HashMap<>();
+            users.forEach(user -> tokens.put(user.getId(), issuer.mint(user)));
+
+            return new Dataset(mongoTemplate.findAll(Subject.class), lessonIds,
+                    users.stream().collect(Collectors.groupingBy(User::getRole)), tokens);
+        }
+    }
+
+    // The application under test. The synthetic-data profile stays active so that the DataInitializer is off,
+    // the data exists already, so the generator does nothing.
+    private static ConfigurableApplicationContext start(EmbeddedMongo mongo, LocalJwtIssuer issuer,
+            List<String> profiles, boolean reactive) {
+        List<String> active = new ArrayList<>(profiles);
+        active.add(SyntheticDataGenerator.PROFILE);
+        return new SpringApplicationBuilder(reactive ? ReactiveStellarcompassApplication.class : StellarcompassApplication.class)
+                .profiles(active.toArray(String[]::new))
+                .initializers(registerJwtDecoder(issuer, reactive))
+                .run(arguments(mongo, "--server.port=0"));
+    }
+
+    // Registered before the configuration is processed, so Spring Boot does not create the Auth0 decoder.
+    // The test sources are on the classpath as well: their @TestConfiguration classes (TestSecurityConfig
+    // with its fake decoder) are kept out of the component scan, like Spring Boot's tests do.
+    private static ApplicationContextInitializer<ConfigurableApplicationContext> registerJwtDecoder(
+            LocalJwtIssuer issuer, boolean reactive) {
+        return context -> {
+            context.getBeanFactory().registerSingleton("jwtDecoder",
+                    reactive ? issuer.reactiveDecoder() : issuer.decoder());
+            context.getBeanFactory().registerSingleton("testConfigurationExcludeFilter", new TypeExcludeFilter() {
+                @Override
+                public boolean match(org.springframework.core.type.classreading.MetadataReader reader,
+                        org.springframework.core.type.classreading.MetadataReaderFactory factory) {
+                    return reader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+                }
+            });
+        };
+    }
+
+    private static String[] arguments(EmbeddedMongo mongo, String... more) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.data.mongodb.uri=" + mongo.uri(),
+                "--AUTH0_DOMAIN=loadtest.invalid", // not contacted, the decoder above is used
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(more));
+        return arguments.toArray(String[]::new);
+    }
+
+    // Closed loop: every worker sends its next request as soon as the previous one is answered
+    private static Map<String, Latencies> drive(Traffic traffic, int concurrency, Duration duration) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+                ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<String, Latencies>>> results = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                results.add(workers.submit(() -> {
+                    Map<String, Latencies> latencies = new HashMap<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        Traffic.Request request = traffic.next(random);
+                        long start = System.nanoTime();
+                        boolean error;
+                        try {
+                            error = client.send(request.request(), BodyHandlers.ofByteArray()).statusCode() >= 400;
+                        } catch (java.io.IOException e) {
+                            error = true;
+                        }
+                        latencies.computeIfAbsent(request.operation(), name -> new Latencies())
+                                .record(System.nanoTime() - start, error);
+                    }
+                    return latencies;
+                }));
+            }
+
+            Map<String, Latencies> merged = new TreeMap<>();
+            for (Future<Map<String, Latencies>> result : results) {
+                result.get().forEach((operation, latencies) ->
+                        merged.computeIfAbsent(operation, name -> new Latencies()).addAll(latencies));
+            }
+            return merged;
+        }
+    }
+
+    private static void report(Map<String, Latencies> latencies, List<String> profiles, int concurrency,
+            Duration duration, File result) throws Exception {
+        double seconds = duration.toMillis() / 1000.0;
+        Latencies total = new Latencies();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        latencies.forEach((operation, values) -> {
+            total.addAll(values);
+            operations.put(operation, values.summary(seconds));
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", profiles);
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", seconds);
+        report.put("total", total.summary(seconds));
+        report.put("operations", operations);
+
+        System.out.printf("%n%-40s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Operation", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        operations.forEach((operation, summary) -> print(operation, summary));
+        print("TOTAL", report.get("total"));
+
+        result.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(result, report);
+        System.out.println("\nResult written to " + result.getAbsolutePath());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String operation, Object values) {
+        Map<String, Object> summary = (Map<String, Object>) values;
+        System.out.printf("%-40s %9s %7s %9s %9s %9s %9s %9s%n", operation, summary.get("count"),
+                summary.get("errors"), summary.get("requestsPerSecond"), summary.get("p50"), summary.get("p99"),
+                summary.get("p999"), summary.get("max"));
+    }
+}
@@ -0,0 +1,91 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+
+import ch.zhaw.stellarcompass.model.User;
+
+// Stands in for Auth0: signs RS256 access tokens with a key generated at startup and provides the matching decoders.
+// Unlike TestSecurityConfig the tokens are real JWTs, so the signature check and the claim parsing
+// of every request are part of the measurement, only fetching the JWKS from Auth0 is skipped.
+final class LocalJwtIssuer {
+
+    static final String ISSUER = "https://loadtest.stellarcompass.local/";
+    private static final String KEY_ID = "loadtest";
+    private static final Duration VALIDITY = Duration.ofHours(2);
+
+    private final RSAPublicKey publicKey;
+    private final JwtEncoder encoder;
+
+    LocalJwtIssuer() {
+        KeyPair keyPair = generateKeyPair();
+        publicKey = (RSAPublicKey) keyPair.getPublic();
+        RSAKey key = new RSAKey.Builder(publicKey)
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID(KEY_ID)
+                .build();
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+    }
+
+    // An access token with the claims the application reads (email, user_roles), shaped like Auth0's
+    String mint(User user) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(user.getAuth0Id())
+                .audience(List.of("https://stellarcompass/api"))
+                .issuedAt(now)
+                .expiresAt(now.plus(VALIDITY))
+                .claim("scope", "openid profile email")
+                .claim("email", user.getEmail())
+                .claim("user_roles", List.of(user.getRole().name()))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(KEY_ID).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    JwtDecoder decoder() {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        return decoder;
+    }
+
+    ReactiveJwtDecoder reactiveDecoder() {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withPublicKey(publicKey).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        return decoder;
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            // RSA is mandatory for every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ch.zhaw.stellarcompass.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.model.UserRole;
+
+// The request mix: mostly students reading the catalog and lessons, some mentors writing lessons,
+// a few admins managing users and subjects. Weights are relative within a role.
+final class Traffic {
+
+    record Operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest.Builder> request) {
+    }
+
+    record Request(String operation, HttpRequest request) {
+    }
+
+    // Share of the requests per role, in percent
+    private static final int STUDENT_SHARE = 85;
+    private static final int MENTOR_SHARE = 10;
+
+    private final String baseUrl;
+    private final Dataset data;
+    private final Map<UserRole, List<Operation>> operations = new EnumMap<>(UserRole.class);
+
+    // The reactive variant has no user API, its operations are left out
+    Traffic(String baseUrl, Dataset data, boolean reactive) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+
+        List<Operation> student = new ArrayList<>();
+        student.add(new Operation("GET /api/subject", 25, random -> get("/api/subject")));
+        student.add(new Operation("GET /api/lesson/subject/{id}", 25,
+                random -> get("/api/lesson/subject/" + subject(random).getId())));
+        student.add(new Operation("GET /api/lesson/{id}", 35, random -> get("/api/lesson/" + lessonId(random))));
+        if (!reactive) {
+            student.add(new Operation("GET /api/lesson/subject/{id}/summary", 10,
+                    random -> get("/api/lesson/subject/" + subject(random).getId() + "/summary")));
+            student.add(new Operation("GET /api/user/me", 5, random -> get("/api/user/me")));
+        }
+        operations.put(UserRole.STUDENT, student);
+
+        List<Operation> mentor = new ArrayList<>();
+        mentor.add(new Operation("GET /api/lesson/subject/{id}", 40,
+                random -> get("/api/lesson/subject/" + subject(random).getId())));
+        mentor.add(new Operation("GET /api/lesson/{id}", 30, random -> get("/api/lesson/" + lessonId(random))));
+        mentor.add(new Operation("POST /api/lesson", 20, random -> post("/api/lesson", lessonJson(random))));
+        if (!reactive) {
+            mentor.add(new Operation("GET /api/user/{id}", 10,
+                    random -> get("/api/user/" + user(random, UserRole.STUDENT).getId())));
+        }
+        operations.put(UserRole.MENTOR, mentor);
+
+        List<Operation> admin = new ArrayList<>();
+        admin.add(new Operation("GET /api/subject", 30, random -> get("/api/subject")));
+        admin.add(new Operation("POST /api/lesson", 20, random -> post("/api/lesson", lessonJson(random))));
+        admin.add(new Operation("PUT /api/subject/{id}", 20, random -> {
+            // Same title, new description: keeps the unique title index happy and evicts the subject caches
+            Subject subject = subject(random);
+            return put("/api/subject/" + subject.getId(), "{\"title\":\"" + subject.getTitle()
+                    + "\",\"description\":\"Updated " + random.nextInt(1_000_000) + "\"}");
+        }));
+        if (!reactive) {
+            admin.add(new Operation("GET /api/user", 30, random -> get("/api/user")));
+        }
+        operations.put(UserRole.ADMIN, admin);
+    }
+
+    // The next request: a role by its share, a user of that role, an operation by its weight
+    Request next(ThreadLocalRandom random) {
+        int roll = random.nextInt(100);
+        UserRole role = roll < STUDENT_SHARE ? UserRole.STUDENT
+                : roll < STUDENT_SHARE + MENTOR_SHARE ? UserRole.MENTOR
+                : UserRole.ADMIN;
+        User user = user(random, role);
+        Operation operation = pick(operations.get(role), random);
+        HttpRequest request = operation.request().apply(random)
+                .header("Authorization", "Bearer " + data.tokens().get(user.getId()))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        return new Request(operation.name(), request);
+    }
+
+    private static Operation pick(List<Operation> operations, ThreadLocalRandom random) {
+        int total = operations.stream().mapToInt(Operation::weight).sum();
+        int roll = random.nextInt(total);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private Subject subject(ThreadLocalRandom random) {
+        return data.subjects().get(random.nextInt(data.subjects().size()));
+    }
+
+    private String lessonId(ThreadLocalRandom random) {
+        return data.lessonIds().get(random.nextInt(data.lessonIds().size()));
+    }
+
+    private User user(ThreadLocalRandom random, UserRole role) {
+        List<User> users = data.users().get(role);
+        return users.get(random.nextInt(users.size()));
+    }
+
+    private String lessonJson(ThreadLocalRandom random) {
+        return "{\"title\":\"Load test lesson " + random.nextInt(1_000_000) + "\","
+                + "\"content\":\"# Load test\\n\\nA short lesson written during the load test.\","
+                + "\"contentType\":\"TEXT\","
+                + "\"subjectId\":\"" + subject(random).getId() + "\"}";
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder put(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(BodyPublishers.ofString(json));
+    }
+}
@@ -0,0 +1,95 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.repository.LessonRepository;
+
+/**
+ * In-process caches (Caffeine) for data that is read far more often than it is written.
+ * Every cache is bounded and records statistics, which Spring Boot Actuator publishes
+ * to Micrometer (cache.gets, cache.puts, cache.evictions tagged with the cache name).
+ * Invalidation happens in the services on every write, the expiry is only a safety net
+ * for writes done by other instances or directly in the database.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // The whole subject catalog as one entry (getAllSubjects has no parameters)
+    public static final String SUBJECTS = "subjects";
+    // Single subjects by id
+    public static final String SUBJECT_BY_ID = "subjectById";
+    // Single lessons by id, bounded by the (estimated) size in bytes instead of the entry count
+    public static final String LESSON_BY_ID = "lessonById";
+
+    @Bean
+    public CacheManager cacheManager(LessonRepository lessonRepository,
+            @Value("${stellarcompass.cache.lessons.max-bytes:67108864}") long lessonCacheMaxBytes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // No dynamic caches: a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+
+        cacheManager.registerCustomCache(SUBJECTS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(SUBJECT_BY_ID, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .recordStats()
+                .build());
+        // Lessons are weighed by their size, so a few very large Markdown documents cannot blow the heap.
+        // refreshAfterWrite reloads hot lessons in the background (old value is served meanwhile),
+        // a lesson that no longer exists is removed from the cache by the refresh.
+        cacheManager.registerCustomCache(LESSON_BY_ID, Caffeine.newBuilder()
+                .maximumWeight(lessonCacheMaxBytes)
+                .weigher((Object id, Object lesson) -> estimateSize((Lesson) lesson))
+                .refreshAfterWrite(Duration.ofMinutes(5))
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .recordStats()
+                .build(lessonReloader(lessonRepository)));
+        return cacheManager;
+    }
+
+    // refreshAfterWrite needs a loader, but Spring calls get() on a loading cache for every lookup.
+    // A miss is therefore not loaded here (null, nothing cached): @Cacheable on LessonService.getLessonById
+    // reads the lesson once and puts it. Only the background refresh of an existing entry goes to MongoDB.
+    static CacheLoader<Object, Object> lessonReloader(LessonRepository lessonRepository) {
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object id) {
+                return null;
+            }
+
+            @Override
+            public Object reload(Object id, Object oldValue) {
+                return lessonRepository.findById((String) id).orElse(null);
+            }
+        };
+    }
+
+    // Rough heap size of a lesson: 2 bytes per char (worst case for Strings) plus a fixed object overhead
+    static int estimateSize(Lesson lesson) {
+        long chars = length(lesson.getId()) + length(lesson.getTitle()) + length(lesson.getContent())
+                + length(lesson.getVideoUrl()) + length(lesson.getContentType()) + length(lesson.getSubjectId());
+        return (int) Math.min(Integer.MAX_VALUE, 256 + 2 * chars);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,24 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/indexadvice: query shapes that were answered with a collection scan, per collection,
+// with a suggested index. Only filled in the diagnostic mode of MongoCommandMonitor.
+@Component
+@Endpoint(id = "indexadvice")
+public class IndexAdviceEndpoint {
+
+    @Autowired
+    private MongoCommandMonitor mongoCommandMonitor;
+
+    @ReadOperation
+    public Map<String, List<MongoCommandMonitor.IndexAdvice>> indexAdvice() {
+        return mongoCommandMonitor.indexAdvice();
+    }
+}
@@ -0,0 +1,22 @@
+package ch.zhaw.stellarcompass.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+// /actuator/lessonindex: size and estimated heap usage of the in-process lesson search index
+@Component
+@Endpoint(id = "lessonindex")
+public class LessonIndexEndpoint {
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    @ReadOperation
+    public LessonIndex.MemoryReport memoryReport() {
+        return lessonIndex.memoryReport();
+    }
+}
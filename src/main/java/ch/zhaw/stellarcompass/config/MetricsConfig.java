@@ -0,0 +1,155 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.event.CommandEvent;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+import ch.zhaw.stellarcompass.security.UserRolesAuthentication;
+
+/**
+ * Timers for every layer, all tagged with the role of the caller ("role": admin, mentor, student,
+ * "none" for a token without a known role, "anonymous" without a token):
+ * <ul>
+ * <li>http.server.requests: every controller handler (Spring Boot, tagged by uri, method and status)</li>
+ * <li>stellarcompass.service: every public method of a @Service (class, method, exception)</li>
+ * <li>spring.data.repository.invocations: every repository method (Spring Boot)</li>
+ * <li>mongodb.driver.commands: every MongoDB command, by collection and command (Spring Boot's CommandListener)</li>
+ * </ul>
+ * The percentile histograms and the Prometheus endpoint are switched on in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "stellarcompass.service";
+    public static final String ROLE_TAG = "role";
+
+    // Outermost advice, so cache hits (@Cacheable) and transactions are part of the measured time.
+    // Infrastructure role: without AspectJ only infrastructure advisors are applied by Spring's auto proxy creator.
+    // The registry is looked up on first use, so creating the advisor early does not create the registry early.
+    // The timers are kept per method, exception and role: a service call does not build and look up its meter.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTimerAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<ServiceTimerKey, Timer> timers = new ConcurrentHashMap<>();
+        MethodInterceptor timer = invocation -> {
+            Timer.Sample sample = Timer.start();
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(timers.computeIfAbsent(
+                        new ServiceTimerKey(invocation.getMethod(), exception, currentRole()),
+                        key -> serviceTimer(key, meterRegistry.getObject())));
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forClassAnnotation(Service.class), timer);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private record ServiceTimerKey(Method method, String exception, String role) {
+    }
+
+    private static Timer serviceTimer(ServiceTimerKey key, MeterRegistry registry) {
+        return Timer.builder(SERVICE_TIMER)
+                .description("Service method calls")
+                .tag("class", key.method().getDeclaringClass().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("exception", key.exception())
+                .tag(ROLE_TAG, key.role())
+                .register(registry);
+    }
+
+    // The filter that records http.server.requests runs outside of Spring Security and finishes after the
+    // security context was cleared, the authentication is taken from the request attribute instead
+    @Bean
+    ServerRequestObservationConvention roleServerRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object securityContext = context.getCarrier()
+                        .getAttribute(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME);
+                Authentication authentication = securityContext instanceof SecurityContext sc ? sc.getAuthentication() : null;
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of(ROLE_TAG, roleOf(authentication)));
+            }
+        };
+    }
+
+    // The blocking driver reports commands on the calling thread, where the security context is set
+    @Bean
+    MongoCommandTagsProvider roleMongoCommandTagsProvider() {
+        return new DefaultMongoCommandTagsProvider() {
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return Tags.of(super.commandTags(event)).and(ROLE_TAG, currentRole());
+            }
+        };
+    }
+
+    @Bean
+    RepositoryTagsProvider roleRepositoryTagsProvider() {
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return Tags.of(super.repositoryTags(invocation)).and(ROLE_TAG, currentRole());
+            }
+        };
+    }
+
+    static String currentRole() {
+        return roleOf(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // The highest role, so every request counts once
+    static String roleOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        if (authentication instanceof UserRolesAuthentication user) {
+            for (UserRole role : new UserRole[] { UserRole.ADMIN, UserRole.MENTOR, UserRole.STUDENT }) {
+                if (user.hasRole(role)) {
+                    return role.name().toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+        return "none";
+    }
+}
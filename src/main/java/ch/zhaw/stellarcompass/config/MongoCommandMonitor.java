@@ -0,0 +1,199 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Slow command log and collection scan detector for the MongoDB driver.
+ * Every command slower than stellarcompass.mongo.slow-command-threshold is logged with its query shape
+ * (literals redacted, see MongoQueryShape).
+ * Diagnostic mode (stellarcompass.mongo.explain-new-shapes=true): the first time a query shape is seen,
+ * it is explained (queryPlanner, the query is not executed) in the background; a plan with a COLLSCAN is
+ * logged and collected with an index suggestion per collection (actuator endpoint "indexadvice").
+ * Explaining costs a round trip per new shape, so the mode is meant for test and staging runs.
+ */
+@Component
+public class MongoCommandMonitor implements CommandListener, MongoClientSettingsBuilderCustomizer, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoCommandMonitor.class);
+
+    // Upper bound for the remembered shapes, a query built from user input cannot grow the set forever
+    static final int MAX_SHAPES = 1_000;
+
+    // Added by the driver to every command, not part of the query itself
+    private static final Set<String> DRIVER_FIELDS = Set.of("$db", "lsid", "$clusterTime", "txnNumber",
+            "$readPreference", "autocommit", "startTransaction", "readConcern", "writeConcern",
+            "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    public record IndexAdvice(String collection, String shape, Document suggestedIndex) {
+    }
+
+    private record Started(String collection, MongoQueryShape shape) {
+    }
+
+    private final long slowThresholdNanos;
+    private final boolean explainNewShapes;
+    // (database, explain command) -> explain output
+    private final BiFunction<String, Document, Document> explainer;
+    private final ExecutorService explainExecutor;
+
+    private final Map<Integer, Started> running = new ConcurrentHashMap<>();
+    private final Set<String> explainedShapes = ConcurrentHashMap.newKeySet();
+    private final Map<String, IndexAdvice> collectionScans = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MongoCommandMonitor(ObjectProvider<MongoClient> mongoClient,
+            @Value("${stellarcompass.mongo.slow-command-threshold:100ms}") Duration slowThreshold,
+            @Value("${stellarcompass.mongo.explain-new-shapes:false}") boolean explainNewShapes) {
+        // The client is created with this listener, so it is looked up when the first explain runs
+        this(slowThreshold, explainNewShapes,
+                (database, explain) -> mongoClient.getObject().getDatabase(database).runCommand(explain),
+                // One background thread; shapes that do not fit into the queue are explained another time
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+                        Thread.ofPlatform().name("mongo-explain").daemon().factory(),
+                        new ThreadPoolExecutor.DiscardPolicy()));
+    }
+
+    MongoCommandMonitor(Duration slowThreshold, boolean explainNewShapes,
+            BiFunction<String, Document, Document> explainer, ExecutorService explainExecutor) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.explainNewShapes = explainNewShapes;
+        this.explainer = explainer;
+        this.explainExecutor = explainExecutor;
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder settings) {
+        settings.addCommandListener(this);
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    // The command document is only valid during the event, everything needed later is extracted here
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (event.getCommandName().equals("explain")) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        MongoQueryShape shape = MongoQueryShape.of(event.getCommandName(), command);
+        String collection = shape != null ? shape.collection()
+                : command.isString(event.getCommandName()) ? command.getString(event.getCommandName()).getValue() : "";
+        running.put(event.getRequestId(), new Started(collection, shape));
+
+        if (explainNewShapes && shape != null && explainedShapes.size() < MAX_SHAPES
+                && explainedShapes.add(shape.toString())) {
+            Document explain = new Document("explain", explainable(command)).append("verbosity", "queryPlanner");
+            String database = event.getDatabaseName();
+            explainExecutor.execute(() -> explain(database, explain, shape));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), "");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), " (failed: " + event.getThrowable().getMessage() + ")");
+    }
+
+    // Collection -> query shapes answered with a collection scan and the suggested index, ordered by shape
+    public Map<String, List<IndexAdvice>> indexAdvice() {
+        Map<String, List<IndexAdvice>> report = new TreeMap<>();
+        for (IndexAdvice advice : collectionScans.values()) {
+            report.computeIfAbsent(advice.collection(), key -> new ArrayList<>()).add(advice);
+        }
+        report.values().forEach(advice -> advice.sort(Comparator.comparing(IndexAdvice::shape)));
+        return report;
+    }
+
+    private void finished(int requestId, String database, String commandName, long elapsedNanos, String outcome) {
+        Started started = running.remove(requestId);
+        if (started == null || elapsedNanos < slowThresholdNanos) {
+            return;
+        }
+        log.warn("Slow MongoDB command {} on {}.{} took {} ms{}: {}", commandName, database, started.collection(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), outcome,
+                started.shape() != null ? started.shape() : "(no query)");
+    }
+
+    private void explain(String database, Document explain, MongoQueryShape shape) {
+        try {
+            Document result = explainer.apply(database, explain);
+            Set<String> stages = new HashSet<>();
+            collectWinningStages(result, stages);
+            if (stages.contains("COLLSCAN")) {
+                IndexAdvice advice = new IndexAdvice(shape.collection(), shape.toString(), shape.suggestedIndex());
+                collectionScans.put(advice.shape(), advice);
+                log.warn("Collection scan: {}, suggested index {}", advice.shape(),
+                        advice.suggestedIndex() != null ? advice.suggestedIndex().toJson() : "(none, no filter)");
+            }
+        } catch (RuntimeException e) {
+            // Explain is best effort, the query itself was not affected
+            log.debug("Could not explain {}: {}", shape, e.getMessage());
+        }
+    }
+
+    // The original command without the session and cluster fields the driver added
+    private static Document explainable(BsonDocument command) {
+        Document explainable = new Document();
+        command.forEach((key, value) -> {
+            if (!DRIVER_FIELDS.contains(key)) {
+                explainable.put(key, value);
+            }
+        });
+        return explainable;
+    }
+
+    // Stage names of the winning plan (the rejected plans are skipped), also inside aggregation stages
+    private static void collectWinningStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            document.forEach((key, value) -> {
+                if (key.equals("stage") && value instanceof String stage) {
+                    stages.add(stage);
+                } else if (!key.equals("rejectedPlans")) {
+                    collectWinningStages(value, stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectWinningStages(value, stages));
+        }
+    }
+}
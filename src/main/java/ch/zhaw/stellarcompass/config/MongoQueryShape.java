@@ -0,0 +1,146 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+
+/**
+ * The shape of a MongoDB query: command, collection, filter and sort with every literal replaced by "?".
+ * Queries that differ only in their values have the same shape (also $in lists of different length),
+ * so the shape is safe to log (no personal data such as emails) and usable as a key.
+ * The filter fields are classified for an index suggestion following the ESR rule:
+ * equality fields first, then the sort fields, then the range fields.
+ */
+final class MongoQueryShape {
+
+    private static final Set<String> EQUALITY_OPERATORS = Set.of("$eq", "$in");
+    private static final BsonString REDACTED = new BsonString("?");
+
+    private final String command;
+    private final String collection;
+    private final BsonDocument filter;
+    private final BsonDocument sort;
+    private final List<String> equalityFields = new ArrayList<>();
+    private final List<String> rangeFields = new ArrayList<>();
+
+    private MongoQueryShape(String command, String collection, BsonDocument filter, BsonDocument sort) {
+        this.command = command;
+        this.collection = collection;
+        this.filter = (BsonDocument) redact(filter);
+        this.sort = sort;
+        classify(filter);
+    }
+
+    // The shape of a query command, null for all other commands (insert, getMore, hello, ...)
+    static MongoQueryShape of(String commandName, BsonDocument command) {
+        BsonValue target = command.get(commandName);
+        if (target == null || !target.isString()) {
+            return null;
+        }
+        String collection = target.asString().getValue();
+        return switch (commandName) {
+            case "find" -> new MongoQueryShape(commandName, collection, document(command, "filter"), document(command, "sort"));
+            case "count", "distinct" -> new MongoQueryShape(commandName, collection, document(command, "query"), null);
+            case "findAndModify" -> new MongoQueryShape(commandName, collection, document(command, "query"), document(command, "sort"));
+            case "update" -> new MongoQueryShape(commandName, collection, firstStatement(command, "updates"), null);
+            case "delete" -> new MongoQueryShape(commandName, collection, firstStatement(command, "deletes"), null);
+            case "aggregate" -> new MongoQueryShape(commandName, collection, stage(command, "$match"), stage(command, "$sort"));
+            default -> null;
+        };
+    }
+
+    String collection() {
+        return collection;
+    }
+
+    // e.g. find lessons {"subjectId": "?"} sort {"_id": 1}
+    @Override
+    public String toString() {
+        String shape = command + " " + collection + " " + filter.toJson();
+        return sort == null || sort.isEmpty() ? shape : shape + " sort " + sort.toJson();
+    }
+
+    // Equality fields, then sort fields, then range fields; null if the query has no fields to index
+    Document suggestedIndex() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        equalityFields.forEach(field -> keys.put(field, 1));
+        if (sort != null) {
+            sort.forEach((field, direction) -> keys.putIfAbsent(field, direction.isNumber() ? direction.asNumber().intValue() : 1));
+        }
+        rangeFields.forEach(field -> keys.putIfAbsent(field, 1));
+        return keys.isEmpty() ? null : new Document(keys);
+    }
+
+    private void classify(BsonDocument query) {
+        query.forEach((field, value) -> {
+            if (field.equals("$and") && value.isArray()) {
+                value.asArray().forEach(clause -> {
+                    if (clause.isDocument()) {
+                        classify(clause.asDocument());
+                    }
+                });
+            } else if (field.startsWith("$")) {
+                // $or, $expr, $text, ...: not usable for a simple compound index suggestion
+            } else if (value.isDocument() && isOperatorDocument(value.asDocument())) {
+                (EQUALITY_OPERATORS.containsAll(value.asDocument().keySet()) ? equalityFields : rangeFields).add(field);
+            } else {
+                equalityFields.add(field);
+            }
+        });
+    }
+
+    private static boolean isOperatorDocument(BsonDocument document) {
+        return !document.isEmpty() && document.keySet().stream().allMatch(key -> key.startsWith("$"));
+    }
+
+    // Documents and arrays of documents ($and, $or, ...) keep their structure, every other value becomes "?"
+    private static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> redacted.put(key, redact(nested)));
+            return redacted;
+        }
+        if (value.isArray() && !value.asArray().isEmpty() && value.asArray().stream().allMatch(BsonValue::isDocument)) {
+            BsonArray redacted = new BsonArray();
+            value.asArray().forEach(nested -> redacted.add(redact(nested)));
+            return redacted;
+        }
+        return REDACTED;
+    }
+
+    private static BsonDocument document(BsonDocument command, String key) {
+        BsonValue value = command.get(key);
+        return value != null && value.isDocument() ? value.asDocument() : new BsonDocument();
+    }
+
+    // Bulk updates and deletes: the shape of the first statement
+    private static BsonDocument firstStatement(BsonDocument command, String key) {
+        BsonValue statements = command.get(key);
+        if (statements != null && statements.isArray() && !statements.asArray().isEmpty()
+                && statements.asArray().get(0).isDocument()) {
+            return document(statements.asArray().get(0).asDocument(), "q");
+        }
+        return new BsonDocument();
+    }
+
+    // The first $match (or $sort) stage of a pipeline
+    private static BsonDocument stage(BsonDocument command, String stage) {
+        BsonValue pipeline = command.get("pipeline");
+        if (pipeline != null && pipeline.isArray()) {
+            for (BsonValue value : pipeline.asArray()) {
+                if (value.isDocument() && value.asDocument().containsKey(stage)) {
+                    return document(value.asDocument(), stage);
+                }
+            }
+        }
+        return stage.equals("$match") ? new BsonDocument() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package ch.zhaw.stellarcompass.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.ClusterType;
+
+/**
+ * MongoDB transactions for the few writes that have to be atomic across collections
+ * (e.g. SubjectService.deleteSubject), used programmatically.
+ * The transaction manager is deliberately not a bean: that would switch on the class-level
+ * @Transactional of LessonService and turn every lesson read into a transaction.
+ * Transactions need a replica set or a sharded cluster (Atlas). On a standalone server
+ * (local development, the in-memory test server) the work runs without a transaction.
+ */
+@Component
+public class MongoTransactions {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoTransactions.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+    private volatile Boolean supported;
+
+    @Autowired
+    public MongoTransactions(MongoDatabaseFactory mongoDatabaseFactory, MongoClient mongoClient, MongoTemplate mongoTemplate) {
+        this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory));
+        this.mongoClient = mongoClient;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // All MongoTemplate and repository calls inside work take part in the transaction
+    public void execute(Runnable work) {
+        if (isSupported()) {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+        } else {
+            work.run();
+        }
+    }
+
+    boolean isSupported() {
+        if (supported == null) {
+            if (mongoClient.getClusterDescription().getType() == ClusterType.UNKNOWN) {
+                // Not connected yet, the first command discovers the deployment
+                mongoTemplate.executeCommand(new Document("ping", 1));
+            }
+            ClusterType type = mongoClient.getClusterDescription().getType();
+            supported = type == ClusterType.REPLICA_SET || type == ClusterType.SHARDED || type == ClusterType.LOAD_BALANCED;
+            if (!supported) {
+                log.warn("MongoDB deployment is {}, writes across collections run without a transaction", type);
+            }
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,28 @@
+package ch.zhaw.stellarcompass.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.zhaw.stellarcompass.search.AnalyzerPipeline;
+import ch.zhaw.stellarcompass.search.TextAnalyzer;
+
+/**
+ * The TextAnalyzer of the in-process lesson search index (LessonIndex), chosen with
+ * stellarcompass.lesson-index.analyzer:
+ * - dari-pashto (default): lower case plus folding of the Arabic-script spelling variants (see ArabicScriptFolding)
+ * - standard: lower case only
+ * Changing it needs a restart, the index is rebuilt on startup with the new analyzer.
+ */
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public TextAnalyzer lessonTextAnalyzer(@Value("${stellarcompass.lesson-index.analyzer:dari-pashto}") String analyzer) {
+        return switch (analyzer) {
+            case "dari-pashto" -> AnalyzerPipeline.dariPashto();
+            case "standard" -> AnalyzerPipeline.standard();
+            default -> throw new IllegalArgumentException("Unknown lesson index analyzer: " + analyzer);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package ch.zhaw.stellarcompass.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Pinning diagnostics for the virtual thread mode (profile "virtual-threads").
+ * A virtual thread that blocks inside a synchronized block or a native frame stays pinned to its carrier,
+ * which silently turns the carrier pool (one thread per core) into the bottleneck again.
+ * The JFR event jdk.VirtualThreadPinned is streamed in-process: every pinning longer than the threshold
+ * is counted (jvm.threads.virtual.pinned) and logged with its stack trace.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Only the top of the stack is logged, that is where the blocking call is
+    private static final int MAX_LOGGED_FRAMES = 16;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${stellarcompass.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier thread longer than the threshold")
+                .tag("threshold", threshold.toString())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        log.info("Virtual threads enabled, reporting pinnings longer than {}", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    double pinnedCount() {
+        return pinned.count();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        StringBuilder stackTrace = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            event.getStackTrace().getFrames().stream()
+                    .limit(MAX_LOGGED_FRAMES)
+                    .forEach(frame -> stackTrace.append("\n\tat ").append(format(frame)));
+        }
+        log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), stackTrace);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+}
@@ -0,0 +1,149 @@
+package ch.zhaw.stellarcompass.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+
+/**
+ * Strong ETags for subjects, lessons and users.
+ * A stored document carries a version (@Version, incremented on every update), which is used directly:
+ * the ETag of version 3 is "v3", so an If-Match can be turned back into the version a conditional update expects.
+ * Documents without a version fall back to a fingerprint of the fields. Fingerprints (and list ETags) are
+ * remembered per object instance: the caches (see CacheConfig) hand out the same instance until it is evicted,
+ * so a cached subject catalog or lesson is hashed only once and a conditional GET with a matching
+ * If-None-Match is answered with 304 without touching MongoDB.
+ * Spring answers the conditional GET itself as soon as the ResponseEntity carries an ETag.
+ */
+@Component
+class ContentETags {
+
+    // weakKeys compares by identity and drops the entry once the object is no longer referenced
+    private final Cache<Object, String> versions = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(10_000)
+            .build();
+
+    private static final String VERSION_PREFIX = "v";
+    // Marks the ETag of the gzip representation, it must differ from the plain one (see SerializedResponses)
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    String forLesson(Lesson lesson) {
+        return quote(versionOf(lesson));
+    }
+
+    String forSubject(Subject subject) {
+        return quote(versionOf(subject));
+    }
+
+    String forUser(User user) {
+        return quote(versionOf(user));
+    }
+
+    String forSubjects(List<Subject> subjects) {
+        // Not computed inside versions.get: a mapping function must not touch other entries of the same cache
+        String version = versions.getIfPresent(subjects);
+        if (version == null) {
+            version = hash(subjects.stream().flatMap(subject -> Stream.of(subject.getId(), versionOf(subject))).toArray());
+            versions.put(subjects, version);
+        }
+        return quote(version);
+    }
+
+    // A page of a listing also depends on the cursor to the following page
+    String forLessons(List<Lesson> lessons, String next) {
+        return quote(hash(Stream.concat(
+                lessons.stream().flatMap(lesson -> Stream.of(lesson.getId(), versionOf(lesson))),
+                Stream.of(next)).toArray()));
+    }
+
+    // "v3" -> "v3-gzip", a weak ETag may be shared by both representations and stays as it is
+    static String forGzip(String eTag) {
+        if (eTag == null || !eTag.startsWith("\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    // The version a conditional update expects, null if the update is unconditional (no If-Match or "*").
+    // Only one strong ETag of a stored version can match, anything else (weak, several, a fingerprint) cannot
+    // belong to the current state and fails the precondition.
+    Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("\"" + VERSION_PREFIX) && eTag.endsWith("\"") && eTag.length() > VERSION_PREFIX.length() + 2) {
+            // The ETag of a gzip response names the same version
+            String version = eTag.substring(VERSION_PREFIX.length() + 1, eTag.length() - 1);
+            if (version.endsWith(GZIP_SUFFIX)) {
+                version = version.substring(0, version.length() - GZIP_SUFFIX.length());
+            }
+            try {
+                return Long.valueOf(version);
+            } catch (NumberFormatException e) {
+                // falls through to the failed precondition
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match " + eTag + " does not match the current version");
+    }
+
+    private String versionOf(Lesson lesson) {
+        if (lesson.getVersion() != null) {
+            return VERSION_PREFIX + lesson.getVersion();
+        }
+        return versions.get(lesson, key -> hash(lesson.getId(), lesson.getTitle(), lesson.getContent(),
+                lesson.getVideoUrl(), lesson.getContentType(), lesson.getSubjectId()));
+    }
+
+    private String versionOf(Subject subject) {
+        if (subject.getVersion() != null) {
+            return VERSION_PREFIX + subject.getVersion();
+        }
+        return versions.get(subject, key -> hash(subject.getId(), subject.getTitle(), subject.getDescription()));
+    }
+
+    private String versionOf(User user) {
+        if (user.getVersion() != null) {
+            return VERSION_PREFIX + user.getVersion();
+        }
+        return versions.get(user, key -> hash(user.getId(), user.getEmail(), user.getName(), user.getRole(),
+                user.getAuth0Id(), user.getMentorId()));
+    }
+
+    private static String hash(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0); // separator, so ("ab", "c") and ("a", "bc") differ
+        }
+        // 128 bit are plenty to tell versions of the same resource apart
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    private static String quote(String version) {
+        return "\"" + version + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,14 +2,23 @@ package ch.zhaw.stellarcompass.controller;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import ch.zhaw.stellarcompass.dto.BulkResultDTO;
+import ch.zhaw.stellarcompass.dto.CursorPage;
 import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.dto.LessonSummaryDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
 import ch.zhaw.stellarcompass.model.Lesson;
 import ch.zhaw.stellarcompass.service.LessonService;
 import ch.zhaw.stellarcompass.service.UserService;
@@ -23,6 +32,10 @@ public class LessonController {
     private LessonService lessonService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ContentETags contentETags;
+    @Autowired
+    private SerializedResponses serializedResponses;
 
     // Create lesson: only Admins and Mentors
     @PostMapping
@@ -41,33 +54,103 @@ public class LessonController {
         return ResponseEntity.created(location).body(createdLesson);
     }
 
+    // Create many lessons at once: only Admins and Mentors
+    // Validation and unknown subjects are reported per item (see BulkResultDTO), the valid lessons are created
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResultDTO> createLessons(@RequestBody List<LessonCreateDTO> dtos) {
+        if(!userService.userHasRole("ADMIN") && !userService.userHasRole("MENTOR")){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(lessonService.createLessons(dtos));
+    }
+
     // Read lessons: all authenticated users
+    // Paginated with a cursor: the body stays a plain array, the next page is announced in the headers
     @GetMapping
-    public ResponseEntity<List<Lesson>> getAllLessons() {
-        return new ResponseEntity<>(lessonService.getAllLessons(), HttpStatus.OK);
+    public ResponseEntity<List<Lesson>> getAllLessons(
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<Lesson> page = lessonService.getAllLessons(next, limit);
+        return pageResponse(page, limit, contentETags.forLessons(page.getItems(), page.getNext()));
+    }
+
+    // Export all lessons as newline-delimited JSON: only Admins and Mentors
+    // The body is written asynchronously while the Mongo cursor is read, nothing is collected in memory
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLessons() {
+        if(!userService.userHasRole("ADMIN") && !userService.userHasRole("MENTOR")){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        StreamingResponseBody body = lessonService::exportLessons;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Lesson> getLessonById(@PathVariable String id) {
+    public ResponseEntity<byte[]> getLessonById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         // Consistency: We use Global Exception Handler for Not Found exceptions
         Lesson lesson = lessonService.getLessonById(id);
-        return ResponseEntity.ok(lesson);
+        // With an ETag Spring answers a matching If-None-Match with 304 (the lesson usually comes from the cache),
+        // otherwise the serialized body of the cached lesson is reused
+        return serializedResponses.ok(lesson, contentETags.forLesson(lesson), acceptEncoding);
     }
 
     // Get lessons by subject ID
     @GetMapping("/subject/{subjectId}")
-    public ResponseEntity<List<Lesson>> getLessonsBySubject(@PathVariable String subjectId) {
-        return new ResponseEntity<>(lessonService.getLessonsBySubject(subjectId), HttpStatus.OK);
+    public ResponseEntity<List<Lesson>> getLessonsBySubject(
+            @PathVariable String subjectId,
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<Lesson> page = lessonService.getLessonsBySubject(subjectId, next, limit);
+        return pageResponse(page, limit, contentETags.forLessons(page.getItems(), page.getNext()));
+    }
+
+    // Get lesson summaries by subject ID (without content), for list pages
+    @GetMapping("/subject/{subjectId}/summary")
+    public ResponseEntity<List<LessonSummaryDTO>> getLessonSummariesBySubject(
+            @PathVariable String subjectId,
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(lessonService.getLessonSummariesBySubject(subjectId, next, limit), limit, null);
+    }
+
+    // Full-text search over title and content: all authenticated users
+    // Ranked by relevance, paginated with a cursor like the listings
+    @GetMapping("/search")
+    public ResponseEntity<List<LessonSearchHitDTO>> searchLessons(
+            @RequestParam String q,
+            @RequestParam(required = false) String subjectId,
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(lessonService.searchLessons(q, subjectId, next, limit), limit, null);
+    }
+
+    // Search-as-you-type: all authenticated users
+    // Answered from the in-process index, only the best hits (no pagination)
+    @GetMapping("/suggest")
+    public ResponseEntity<List<LessonSearchHitDTO>> suggestLessons(
+            @RequestParam String q,
+            @RequestParam(required = false) String subjectId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(lessonService.suggestLessons(q, subjectId, limit));
     }
 
     // Update lesson which has valid id: only Admins and Mentors
+    // Partial: only the fields in the body are written, the others can be left out
+    // With If-Match (the ETag of the GET) the update only succeeds on that version, otherwise 412
     @PutMapping("/{id}")
-    public ResponseEntity<Lesson> updateLesson(@PathVariable String id, @Valid @RequestBody LessonCreateDTO dto) { //validation added
+    public ResponseEntity<Lesson> updateLesson(@PathVariable String id, @Valid @RequestBody LessonUpdateDTO dto, //validation added
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if(!userService.userHasRole("ADMIN") && !userService.userHasRole("MENTOR")){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
-        Lesson updatedLesson = lessonService.updateLesson(id, dto);
-        return new ResponseEntity<>(updatedLesson, HttpStatus.OK);
+        Long expectedVersion = contentETags.expectedVersion(ifMatch);
+        Lesson updatedLesson = expectedVersion == null
+                ? lessonService.updateLesson(id, dto)
+                : lessonService.updateLesson(id, dto, expectedVersion);
+        return ResponseEntity.ok().eTag(contentETags.forLesson(updatedLesson)).body(updatedLesson);
     }
     // Delete lesson by id: only Admins
     @DeleteMapping("/{id}")
@@ -78,4 +161,34 @@ public class LessonController {
         lessonService.deleteLesson(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // Delete many lessons at once (DELETE /api/lesson?ids=a,b,c): only Admins
+    // Unknown ids are skipped, the body reports how many lessons were deleted
+    @DeleteMapping
+    public ResponseEntity<Map<String, Long>> deleteLessons(@RequestParam List<String> ids) {
+        if(!userService.userHasRole("ADMIN")){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(Map.of("deleted", lessonService.deleteLessons(ids)));
+    }
+
+    // Link header (RFC 8288) with rel="next" plus the raw token for clients that do not parse links,
+    // and the ETag of the page (if any) for conditional requests
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page, int limit, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        if (page.hasNext()) {
+            URI nextPage = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .replaceQueryParam("next", page.getNext())
+                    .replaceQueryParam("limit", limit)
+                    .build()
+                    .toUri();
+            headers.add(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+            headers.add("X-Next-Cursor", page.getNext());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package ch.zhaw.stellarcompass.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Already encoded JSON bodies (plain and gzip) for the hot read endpoints, written to the response as they are.
+ * Like ContentETags the bytes are remembered per object instance: the subject and lesson caches hand out the
+ * same instance until SubjectService or LessonService evicts it, so every write that invalidates the entity
+ * cache also invalidates the serialized body, and a cache hit costs neither Jackson nor compression.
+ */
+@Component
+class SerializedResponses {
+
+    // Smaller bodies are sent uncompressed, gzip would hardly save anything
+    static final int GZIP_MIN_BYTES = 1024;
+
+    // Fixed overhead per entry (entry, record and array headers)
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // weakKeys compares by identity, the entries live as long as the cached entity.
+    // Weighed by the encoded bytes and bounded like the lesson cache: the plain and gzip copies of every cached
+    // lesson are held here as well, an entry count would not bound the heap.
+    private final Cache<Object, Encoded> encoded;
+
+    SerializedResponses() {
+        this(64L * 1024 * 1024); // default of stellarcompass.cache.lessons.max-bytes
+    }
+
+    @Autowired
+    SerializedResponses(@Value("${stellarcompass.cache.lessons.max-bytes:67108864}") long maxBytes) {
+        encoded = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maxBytes)
+                .weigher((Object body, Encoded bytes) -> bytes.size())
+                .build();
+    }
+
+    ResponseEntity<byte[]> ok(Object body, String eTag, String acceptEncoding) {
+        Encoded bytes = encoded.get(body, this::encode);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (bytes.gzip() != null && acceptsGzip(acceptEncoding)) {
+            // Another representation, so another strong ETag (RFC 9110 8.8.3)
+            return response.eTag(ContentETags.forGzip(eTag))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bytes.gzip());
+        }
+        return response.eTag(eTag).body(bytes.json());
+    }
+
+    private Encoded encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Encoded(json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            // Cannot happen with an in-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // "gzip, deflate, br" -> true, "gzip;q=0" -> false
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // gzip is null for bodies below GZIP_MIN_BYTES
+    private record Encoded(byte[] json, byte[] gzip) {
+
+        int size() {
+            return ENTRY_OVERHEAD_BYTES + json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
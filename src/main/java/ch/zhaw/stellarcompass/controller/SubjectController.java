@@ -3,6 +3,8 @@ package ch.zhaw.stellarcompass.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +22,10 @@ public class SubjectController {
     private SubjectService subjectService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ContentETags contentETags;
+    @Autowired
+    private SerializedResponses serializedResponses;
     // CREATE: only Admins and Mentors
     @PostMapping
     public ResponseEntity<Subject> createSubject(@RequestBody SubjectCreateDTO subjectDTO) {
@@ -30,20 +36,39 @@ public class SubjectController {
         return new ResponseEntity<>(createdSubject, HttpStatus.CREATED);
     }
     // READ: all authenticated users
+    // The catalog comes from the cache, a matching If-None-Match is answered with 304 without a DB call,
+    // otherwise the already serialized (and compressed) body of the cached catalog is sent
     @GetMapping
-    public ResponseEntity<List<Subject>> getAllSubjects() {
-        return new ResponseEntity<>(subjectService.getAllSubjects(), HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllSubjects(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        List<Subject> subjects = subjectService.getAllSubjects();
+        return serializedResponses.ok(subjects, contentETags.forSubjects(subjects), acceptEncoding);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getSubjectById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Not found is handled by the Global Exception Handler
+        Subject subject = subjectService.getSubjectById(id);
+        return serializedResponses.ok(subject, contentETags.forSubject(subject), acceptEncoding);
     }
 
     // UPDATE: only Admins and Mentors
+    // With If-Match (the ETag of the GET) the update only succeeds on that version, otherwise 412
     @PutMapping("/{id}")
-    public ResponseEntity<Subject> updateSubject(@PathVariable String id, @RequestBody SubjectCreateDTO dto) {
+    public ResponseEntity<Subject> updateSubject(@PathVariable String id, @RequestBody SubjectCreateDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if(!userService.userHasRole("ADMIN") && !userService.userHasRole("MENTOR")){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
+        Long expectedVersion = contentETags.expectedVersion(ifMatch);
         try {
-            Subject updatedSubject = subjectService.updateSubject(id, dto);
-            return new ResponseEntity<>(updatedSubject, HttpStatus.OK);
+            Subject updatedSubject = expectedVersion == null
+                    ? subjectService.updateSubject(id, dto)
+                    : subjectService.updateSubject(id, dto, expectedVersion);
+            return ResponseEntity.ok().eTag(contentETags.forSubject(updatedSubject)).body(updatedSubject);
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // 412, see GlobalExceptionHandler
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -1,16 +1,22 @@
 package ch.zhaw.stellarcompass.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import ch.zhaw.stellarcompass.dto.UserCreateDTO;
+import ch.zhaw.stellarcompass.dto.UserImportResultDTO;
 import ch.zhaw.stellarcompass.model.User;
 import ch.zhaw.stellarcompass.repository.UserRepository;
 import ch.zhaw.stellarcompass.service.UserService;
@@ -25,30 +31,47 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ContentETags contentETags;
+
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody UserCreateDTO userDTO) {
         User createdUser = userService.createUser(userDTO);
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
 
+    // Import many users at once (e.g. a new school): only Admins
+    // The body (CSV with header row, JSON array or NDJSON) is read as a stream, not buffered
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<UserImportResultDTO> importUsers(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        if(!userService.userHasRole("ADMIN")){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(userService.importUsers(body, contentType), HttpStatus.OK);
+    }
+
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
         return new ResponseEntity<>(userService.getAllUsers(), HttpStatus.OK);
     }
 
+    // The ETag is the version for a later If-Match on the update
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable String id) {
         Optional<User> user = userService.getUserById(id);
         if (user.isPresent()) {
-            return new ResponseEntity<>(user.get(), HttpStatus.OK);
+            return ResponseEntity.ok().eTag(contentETags.forUser(user.get())).body(user.get());
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
     
     // Update user: only Admins or Mentor or the user himself
+    // With If-Match (the ETag of the GET) the update only succeeds on that version, otherwise 412
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable String id, @RequestBody UserCreateDTO userDTO) {
+    public ResponseEntity<User> updateUser(@PathVariable String id, @RequestBody UserCreateDTO userDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if(!userService.userHasRole("ADMIN") && !userService.userHasRole("MENTOR")){
             String email = userService.getEmail();
             Optional<User> userOpt = userService.getUserById(id);
@@ -56,8 +79,11 @@ public class UserController {
                 return new ResponseEntity<>(HttpStatus.FORBIDDEN);
             }
         }
-        User updatedUser = userService.updateUser(id, userDTO);
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        Long expectedVersion = contentETags.expectedVersion(ifMatch);
+        User updatedUser = expectedVersion == null
+                ? userService.updateUser(id, userDTO)
+                : userService.updateUser(id, userDTO, expectedVersion);
+        return ResponseEntity.ok().eTag(contentETags.forUser(updatedUser)).body(updatedUser);
     }
 
     @DeleteMapping("/{id}")
@@ -69,6 +95,16 @@ public class UserController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content ist Standard für Delete
     }
 
+    // Delete many users at once (DELETE /api/user?ids=a,b,c): only Admins
+    // Unknown ids are skipped, the body reports how many users were deleted
+    @DeleteMapping
+    public ResponseEntity<Map<String, Long>> deleteUsers(@RequestParam List<String> ids) {
+        if(!userService.userHasRole("ADMIN")){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(Map.of("deleted", userService.deleteUsers(ids)), HttpStatus.OK);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<User> getMyProfile( @AuthenticationPrincipal Jwt jwt) {
         String email = jwt.getClaimAsString("email");
@@ -0,0 +1,34 @@
+package ch.zhaw.stellarcompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a bulk request, "index" is the position in the request (0-based).
+ * "id" is only set for created items, "message" only for failed ones.
+ */
+@AllArgsConstructor
+@Getter
+public class BulkItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        NOT_FOUND,
+        DUPLICATE,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private String id;
+    private String message;
+
+    public static BulkItemResultDTO created(int index, String id) {
+        return new BulkItemResultDTO(index, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResultDTO failed(int index, Status status, String message) {
+        return new BulkItemResultDTO(index, status, null, message);
+    }
+}
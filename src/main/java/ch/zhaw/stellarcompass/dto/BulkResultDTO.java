@@ -0,0 +1,23 @@
+package ch.zhaw.stellarcompass.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Result of a bulk request: one entry per item (in request order) plus the totals.
+ * Failed items do not abort the request, the other items are still written.
+ */
+@Getter
+public class BulkResultDTO {
+    private int created;
+    private int failed;
+    private List<BulkItemResultDTO> items;
+
+    public BulkResultDTO(List<BulkItemResultDTO> items) {
+        this.items = items.stream().sorted(Comparator.comparingInt(BulkItemResultDTO::getIndex)).toList();
+        this.created = (int) items.stream().filter(item -> item.getStatus() == BulkItemResultDTO.Status.CREATED).count();
+        this.failed = items.size() - created;
+    }
+}
@@ -0,0 +1,67 @@
+package ch.zhaw.stellarcompass.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import ch.zhaw.stellarcompass.exception.BadRequestException;
+
+/**
+ * One slice of a keyset (cursor) paginated listing.
+ * "next" is an opaque token pointing behind the last item, or null on the last page.
+ * The token wraps the last _id (and for ranked listings its score), clients must not rely on its format.
+ */
+@AllArgsConstructor
+@Getter
+public class CursorPage<T> {
+    private List<T> items;
+    private String next;
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Position in a listing sorted by score (descending) and then _id, e.g. the text search
+    public record ScoreCursor(double score, String lastId) {
+    }
+
+    // Double.toString round-trips exactly, so the next page continues at exactly the same score
+    public static String encodeCursor(double score, String lastId) {
+        return encodeCursor(score + ":" + lastId);
+    }
+
+    public static ScoreCursor decodeScoreCursor(String token) {
+        String cursor = decodeCursor(token);
+        int separator = cursor.indexOf(':');
+        if (separator <= 0 || separator == cursor.length() - 1) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+        try {
+            return new ScoreCursor(Double.parseDouble(cursor.substring(0, separator)), cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+    }
+
+    // Invalid tokens end up as 400 Bad Request via GlobalExceptionHandler
+    public static String decodeCursor(String token) {
+        String lastId;
+        try {
+            lastId = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + token, e);
+        }
+        if (lastId.isBlank()) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,19 @@
+package ch.zhaw.stellarcompass.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One lesson of a search result, ranked by score (higher is better).
+ * Like LessonSummaryDTO without the content, plus the subject (a search can span all subjects).
+ */
+@AllArgsConstructor
+@Getter
+public class LessonSearchHitDTO {
+    private String id;
+    private String title;
+    private String subjectId;
+    private String contentType;
+    private boolean hasVideo;
+    private double score;
+}
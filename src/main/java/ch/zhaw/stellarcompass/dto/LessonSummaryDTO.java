@@ -0,0 +1,23 @@
+package ch.zhaw.stellarcompass.dto;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Lightweight view of a lesson for list pages.
+ * Leaves out the content, which can be a large Markdown document.
+ */
+@AllArgsConstructor
+@Getter
+public class LessonSummaryDTO {
+    private String id;
+    private String title;
+    private String contentType;
+    private boolean hasVideo;
+
+    public static LessonSummaryDTO from(Lesson lesson) {
+        boolean hasVideo = lesson.getVideoUrl() != null && !lesson.getVideoUrl().isBlank();
+        return new LessonSummaryDTO(lesson.getId(), lesson.getTitle(), lesson.getContentType(), hasVideo);
+    }
+}
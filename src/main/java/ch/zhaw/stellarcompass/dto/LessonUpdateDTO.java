@@ -0,0 +1,20 @@
+package ch.zhaw.stellarcompass.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import jakarta.validation.constraints.Pattern;
+
+// Partial update: only the fields that are sent are changed, the others may be left out.
+// A field that is sent must not be blank (null passes @Pattern).
+@NoArgsConstructor
+@Getter
+public class LessonUpdateDTO {
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    private String title;
+    @Pattern(regexp = "(?s).*\\S.*", message = "Content must not be blank")
+    private String content;
+    private String videoUrl;    // An empty string removes the video
+    private String contentType; // e.g. "TEXT", "VIDEO"
+    @Pattern(regexp = "(?s).*\\S.*", message = "Subject ID must not be blank")
+    private String subjectId;   // Moves the lesson to another subject
+}
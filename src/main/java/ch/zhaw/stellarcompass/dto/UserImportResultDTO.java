@@ -0,0 +1,36 @@
+package ch.zhaw.stellarcompass.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Result of a user import. Unlike BulkResultDTO only failed records are listed ("index" is the position
+ * of the record in the upload, 0-based, without the CSV header), so the result stays small for large files.
+ * At most MAX_REPORTED_ERRORS failures are listed, "failed" always counts all of them.
+ */
+@Getter
+public class UserImportResultDTO {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int created;
+    private int failed;
+    private List<BulkItemResultDTO> errors = new ArrayList<>();
+
+    public void addCreated(int count) {
+        created += count;
+    }
+
+    public void addFailure(BulkItemResultDTO failure) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(failure);
+        }
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+}
@@ -0,0 +1,14 @@
+package ch.zhaw.stellarcompass.exception;
+
+// A request the client has to fix (e.g. a broken cursor or an empty search query) -> 400 Bad Request.
+// Thrown on purpose instead of IllegalArgumentException, so internal errors are never reported as client errors.
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,9 +1,12 @@
 package ch.zhaw.stellarcompass.exception;
 
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -37,6 +40,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    // Catches stale writes (If-Match does not match the current version) -> 412 Precondition Failed
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleStaleVersion(OptimisticLockingFailureException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Precondition Failed");
+        error.put("message", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Catches invalid request parameters (e.g., a broken pagination cursor) -> 400 Bad Request
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(BadRequestException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Bad Request");
+        error.put("message", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     // Catches "Not Found" errors -> 404 Not Found
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<Map<String, String>> handleNotFound(NoSuchElementException ex) {
@@ -47,11 +68,16 @@ public class GlobalExceptionHandler {
     }
     
     // Catches general errors -> 500 (as a fallback)
+    // Spring's own request errors (e.g. 415 Unsupported Media Type) keep their status
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGeneral(Exception ex) {
+        HttpStatusCode status = ex instanceof ErrorResponse errorResponse
+                ? errorResponse.getStatusCode()
+                : HttpStatus.INTERNAL_SERVER_ERROR;
         Map<String, String> error = new HashMap<>();
-        error.put("error", "Internal Server Error");
+        HttpStatus knownStatus = HttpStatus.resolve(status.value());
+        error.put("error", knownStatus != null ? knownStatus.getReasonPhrase() : "Error");
         error.put("message", ex.getMessage());
-        return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(error, status);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package ch.zhaw.stellarcompass.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -11,15 +14,24 @@ import lombok.RequiredArgsConstructor;
 @NoArgsConstructor
 @RequiredArgsConstructor
 @Data
-@Document("lessons")
+// Text search (LessonService.searchLessons): no stemming or stop words ("none"), the lessons are not all English
+@Document(collection = "lessons", language = "none")
+// Index for the lesson listings of a subject:
+// subjectId + _id serve the filter and the keyset sort (no collection scan, no in-memory sort),
+// title, contentType and videoUrl make the summary listing a covered query (answered from the index alone)
+@CompoundIndex(name = "subject_listing_idx",
+        def = "{ 'subjectId': 1, '_id': 1, 'title': 1, 'contentType': 1, 'videoUrl': 1 }")
 public class Lesson {
     @Id
     private String id;
 
+    // A match in the title counts five times as much as one in the content
     @NonNull
+    @TextIndexed(weight = 5)
     private String title;
 
     @NonNull
+    @TextIndexed
     private String content;
 
     private String videoUrl;
@@ -27,4 +39,7 @@ public class Lesson {
 
     @NonNull
     private String subjectId; // Foreign key to Subject
+
+    @Version
+    private Long version; // Optimistic locking: incremented on every update, exposed as the ETag
 }
@@ -1,6 +1,7 @@
 package ch.zhaw.stellarcompass.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -27,4 +28,7 @@ public class Subject {
 
     @NonNull
     private String description;
+
+    @Version
+    private Long version; // Optimistic locking, checked by save() and If-Match (see SubjectService)
 }
\ No newline at end of file
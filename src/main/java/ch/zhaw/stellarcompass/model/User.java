@@ -1,6 +1,7 @@
 package ch.zhaw.stellarcompass.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -31,5 +32,8 @@ public class User {
     private String auth0Id; // Connection to Auth0 Login (it will important later on - not now)
 
     private String mentorId; // ID of the mentor user (relevant for students)
+
+    @Version
+    private Long version; // Optimistic locking, same as Lesson.version
     
 }
@@ -0,0 +1,120 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import ch.zhaw.stellarcompass.dto.CursorPage;
+import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.UserRole;
+import ch.zhaw.stellarcompass.service.LessonService;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same URLs, role checks and pagination headers as LessonController
+@RestController
+@RequestMapping("/api/lesson")
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveLessonController {
+
+    @Autowired
+    private ReactiveLessonService lessonService;
+
+    // Create lesson: only Admins and Mentors
+    @PostMapping
+    public Mono<ResponseEntity<Lesson>> createLesson(@Valid @RequestBody LessonCreateDTO dto, Principal principal,
+            ServerHttpRequest request) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN, UserRole.MENTOR)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return lessonService.createLesson(dto).map(createdLesson -> {
+            URI location = UriComponentsBuilder.fromUri(request.getURI())
+                    .path("/{id}")
+                    .buildAndExpand(createdLesson.getId())
+                    .toUri();
+            return ResponseEntity.created(location).body(createdLesson);
+        });
+    }
+
+    // Read lessons: all authenticated users, one page (bounded by MAX_PAGE_SIZE)
+    @GetMapping
+    public Mono<ResponseEntity<List<Lesson>>> getAllLessons(
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit,
+            ServerHttpRequest request) {
+        return lessonService.getAllLessons(next, limit).map(page -> pageResponse(page, limit, request));
+    }
+
+    // Export all lessons as newline-delimited JSON: only Admins and Mentors
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Lesson>> exportLessons(Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN, UserRole.MENTOR)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(lessonService.exportLessons());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Lesson> getLessonById(@PathVariable String id) {
+        return lessonService.getLessonById(id);
+    }
+
+    // Get lessons by subject ID
+    @GetMapping("/subject/{subjectId}")
+    public Mono<ResponseEntity<List<Lesson>>> getLessonsBySubject(
+            @PathVariable String subjectId,
+            @RequestParam(required = false) String next,
+            @RequestParam(defaultValue = "" + LessonService.DEFAULT_PAGE_SIZE) int limit,
+            ServerHttpRequest request) {
+        return lessonService.getLessonsBySubject(subjectId, next, limit).map(page -> pageResponse(page, limit, request));
+    }
+
+    // Update lesson which has valid id: only Admins and Mentors
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Lesson>> updateLesson(@PathVariable String id, @Valid @RequestBody LessonUpdateDTO dto,
+            Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN, UserRole.MENTOR)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return lessonService.updateLesson(id, dto).map(ResponseEntity::ok);
+    }
+
+    // Delete lesson by id: only Admins
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteLesson(@PathVariable String id, Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return lessonService.deleteLesson(id).thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    // Link header (RFC 8288) with rel="next" plus the raw token, as in LessonController
+    private ResponseEntity<List<Lesson>> pageResponse(CursorPage<Lesson> page, int limit, ServerHttpRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            URI nextPage = UriComponentsBuilder.fromUri(request.getURI())
+                    .replaceQueryParam("next", page.getNext())
+                    .replaceQueryParam("limit", limit)
+                    .build()
+                    .toUri();
+            headers.add(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+            headers.add("X-Next-Cursor", page.getNext());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,22 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of LessonRepository (same keyset queries)
+public interface ReactiveLessonRepository extends ReactiveMongoRepository<Lesson, String> {
+
+    Flux<Lesson> findAllByOrderByIdAsc(Limit limit);
+
+    Flux<Lesson> findByIdGreaterThanOrderByIdAsc(String lastId, Limit limit);
+
+    Flux<Lesson> findBySubjectIdOrderByIdAsc(String subjectId, Limit limit);
+
+    Flux<Lesson> findBySubjectIdAndIdGreaterThanOrderByIdAsc(String subjectId, String lastId, Limit limit);
+
+    Mono<Long> deleteBySubjectId(String subjectId);
+}
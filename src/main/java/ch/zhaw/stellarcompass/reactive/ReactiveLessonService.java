@@ -0,0 +1,121 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import ch.zhaw.stellarcompass.dto.CursorPage;
+import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.service.LessonService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same behaviour as LessonService, without blocking a thread while MongoDB works
+@Service
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveLessonService {
+
+    @Autowired
+    private ReactiveLessonRepository lessonRepository;
+
+    @Autowired
+    private ReactiveSubjectRepository subjectRepository;
+
+    // CREATE
+    public Mono<Lesson> createLesson(LessonCreateDTO dto) {
+        return requireSubject(dto.getSubjectId()).then(Mono.defer(() -> {
+            Lesson lesson = new Lesson(dto.getTitle(), dto.getContent(), dto.getSubjectId());
+            lesson.setVideoUrl(dto.getVideoUrl());
+            lesson.setContentType(dto.getContentType());
+            return lessonRepository.save(lesson);
+        }));
+    }
+
+    // READ
+    public Mono<CursorPage<Lesson>> getAllLessons(String next, int limit) {
+        int pageSize = clampPageSize(limit);
+        Flux<Lesson> lessons = next == null
+                ? lessonRepository.findAllByOrderByIdAsc(Limit.of(pageSize + 1))
+                : Mono.fromCallable(() -> CursorPage.decodeCursor(next))
+                        .flatMapMany(lastId -> lessonRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(pageSize + 1)));
+        return lessons.collectList().map(list -> toPage(list, pageSize));
+    }
+
+    public Mono<Lesson> getLessonById(String id) {
+        return lessonRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Lesson with ID " + id + " not found")));
+    }
+
+    public Mono<CursorPage<Lesson>> getLessonsBySubject(String subjectId, String next, int limit) {
+        int pageSize = clampPageSize(limit);
+        Flux<Lesson> lessons = next == null
+                ? lessonRepository.findBySubjectIdOrderByIdAsc(subjectId, Limit.of(pageSize + 1))
+                : Mono.fromCallable(() -> CursorPage.decodeCursor(next))
+                        .flatMapMany(lastId -> lessonRepository.findBySubjectIdAndIdGreaterThanOrderByIdAsc(
+                                subjectId, lastId, Limit.of(pageSize + 1)));
+        return lessons.collectList().map(list -> toPage(list, pageSize));
+    }
+
+    // EXPORT
+    // Backpressure from the HTTP connection controls how fast the Mongo cursor is read
+    public Flux<Lesson> exportLessons() {
+        return lessonRepository.findAll();
+    }
+
+    // UPDATE
+    public Mono<Lesson> updateLesson(String id, LessonUpdateDTO dto) {
+        Mono<Void> subjectCheck = dto.getSubjectId() != null ? requireSubject(dto.getSubjectId()) : Mono.empty();
+        return subjectCheck.then(getLessonById(id)).flatMap(lesson -> {
+            // Null-Safety: Only update fields that are provided in the DTO
+            if (dto.getTitle() != null && !dto.getTitle().isBlank()) {
+                lesson.setTitle(dto.getTitle());
+            }
+            if (dto.getContent() != null && !dto.getContent().isBlank()) {
+                lesson.setContent(dto.getContent());
+            }
+            if (dto.getVideoUrl() != null) {
+                lesson.setVideoUrl(dto.getVideoUrl());
+            }
+            if (dto.getContentType() != null) {
+                lesson.setContentType(dto.getContentType());
+            }
+            if (dto.getSubjectId() != null) {
+                lesson.setSubjectId(dto.getSubjectId());
+            }
+            return lessonRepository.save(lesson);
+        });
+    }
+
+    // DELETE
+    public Mono<Void> deleteLesson(String id) {
+        return getLessonById(id).flatMap(lessonRepository::delete);
+    }
+
+    private Mono<Void> requireSubject(String subjectId) {
+        return subjectRepository.existsById(subjectId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new NoSuchElementException("Subject with ID " + subjectId + " not found")));
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return LessonService.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, LessonService.MAX_PAGE_SIZE);
+    }
+
+    private CursorPage<Lesson> toPage(List<Lesson> lessons, int pageSize) {
+        if (lessons.size() <= pageSize) {
+            return new CursorPage<>(lessons, null);
+        }
+        List<Lesson> page = lessons.subList(0, pageSize);
+        return new CursorPage<>(page, CursorPage.encodeCursor(page.get(pageSize - 1).getId()));
+    }
+}
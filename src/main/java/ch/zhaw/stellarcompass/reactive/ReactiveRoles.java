@@ -0,0 +1,24 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.security.Principal;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+import ch.zhaw.stellarcompass.security.UserRolesAuthentication;
+
+// Role checks without the (thread bound) SecurityContextHolder: the principal is passed by WebFlux
+final class ReactiveRoles {
+
+    private ReactiveRoles() {
+    }
+
+    static boolean hasAnyRole(Principal principal, UserRole... roles) {
+        if (principal instanceof UserRolesAuthentication authentication) {
+            for (UserRole role : roles) {
+                if (authentication.hasRole(role)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
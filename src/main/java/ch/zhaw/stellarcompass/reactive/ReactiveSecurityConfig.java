@@ -0,0 +1,35 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+import ch.zhaw.stellarcompass.security.UserRolesAuthenticationConverter;
+
+// Same rules as SecurityConfig, for WebFlux
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+            .authorizeExchange(authorize -> authorize
+                .pathMatchers("/*").permitAll()
+                .pathMatchers("/api/**").authenticated()
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+                .anyExchange().permitAll()
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                .jwtAuthenticationConverter(
+                        new ReactiveJwtAuthenticationConverterAdapter(new UserRolesAuthenticationConverter()))));
+
+        return http.build();
+    }
+}
@@ -0,0 +1,29 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import ch.zhaw.stellarcompass.exception.GlobalExceptionHandler;
+
+/**
+ * Reactive variant of the lesson and subject APIs (WebFlux on Netty, reactive MongoDB driver),
+ * with the same URLs and security rules as the Spring MVC application, to compare throughput per core.
+ * Only this package is scanned; everything in it carries the "reactive" profile, so the regular
+ * application (which scans all packages) ignores it.
+ * Start with: mvn spring-boot:run -Dspring-boot.run.main-class=ch.zhaw.stellarcompass.reactive.ReactiveStellarcompassApplication
+ */
+@SpringBootApplication
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+@Import(GlobalExceptionHandler.class) // same error responses as the MVC application
+public class ReactiveStellarcompassApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveStellarcompassApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
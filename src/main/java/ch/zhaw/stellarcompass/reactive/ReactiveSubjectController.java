@@ -0,0 +1,65 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ch.zhaw.stellarcompass.dto.SubjectCreateDTO;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.UserRole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same URLs and role checks as SubjectController
+@RestController
+@RequestMapping("/api/subject")
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveSubjectController {
+
+    @Autowired
+    private ReactiveSubjectService subjectService;
+
+    // CREATE: only Admins and Mentors
+    @PostMapping
+    public Mono<ResponseEntity<Subject>> createSubject(@RequestBody SubjectCreateDTO subjectDTO, Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN, UserRole.MENTOR)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return subjectService.createSubject(subjectDTO)
+                .map(subject -> new ResponseEntity<>(subject, HttpStatus.CREATED));
+    }
+
+    // READ: all authenticated users, streamed as a JSON array
+    @GetMapping
+    public Flux<Subject> getAllSubjects() {
+        return subjectService.getAllSubjects();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Subject> getSubjectById(@PathVariable String id) {
+        return subjectService.getSubjectById(id);
+    }
+
+    // UPDATE: only Admins and Mentors
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Subject>> updateSubject(@PathVariable String id, @RequestBody SubjectCreateDTO dto,
+            Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN, UserRole.MENTOR)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return subjectService.updateSubject(id, dto).map(ResponseEntity::ok);
+    }
+
+    // DELETE: only Admins
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteSubject(@PathVariable String id, Principal principal) {
+        if (!ReactiveRoles.hasAnyRole(principal, UserRole.ADMIN)) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+        }
+        return subjectService.deleteSubject(id).thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+}
@@ -0,0 +1,9 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import ch.zhaw.stellarcompass.model.Subject;
+
+public interface ReactiveSubjectRepository extends ReactiveMongoRepository<Subject, String> {
+    //Standard CRUD is provided by ReactiveMongoRepository
+}
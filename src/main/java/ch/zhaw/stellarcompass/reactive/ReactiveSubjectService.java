@@ -0,0 +1,52 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import ch.zhaw.stellarcompass.dto.SubjectCreateDTO;
+import ch.zhaw.stellarcompass.model.Subject;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveSubjectService {
+
+    @Autowired
+    private ReactiveSubjectRepository subjectRepository;
+
+    @Autowired
+    private ReactiveLessonRepository lessonRepository;
+
+    public Mono<Subject> createSubject(SubjectCreateDTO subjectDTO) {
+        return subjectRepository.save(new Subject(subjectDTO.getTitle(), subjectDTO.getDescription()));
+    }
+
+    public Flux<Subject> getAllSubjects() {
+        return subjectRepository.findAll();
+    }
+
+    public Mono<Subject> getSubjectById(String id) {
+        return subjectRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Subject with ID " + id + " not found")));
+    }
+
+    // Update
+    public Mono<Subject> updateSubject(String id, SubjectCreateDTO dto) {
+        return getSubjectById(id).flatMap(subject -> {
+            subject.setTitle(dto.getTitle());
+            subject.setDescription(dto.getDescription());
+            return subjectRepository.save(subject);
+        });
+    }
+
+    // Delete, together with the lessons of the subject (like SubjectService.deleteSubject).
+    // The lessons go first: if the subject delete fails, the subject is still there and the delete can be repeated.
+    public Mono<Void> deleteSubject(String id) {
+        return lessonRepository.deleteBySubjectId(id)
+                .then(subjectRepository.deleteById(id));
+    }
+}
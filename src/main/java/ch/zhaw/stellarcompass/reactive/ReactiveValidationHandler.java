@@ -0,0 +1,27 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+// WebFlux reports @Valid errors as WebExchangeBindException, same 400 body as in GlobalExceptionHandler
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile(ReactiveStellarcompassApplication.PROFILE)
+public class ReactiveValidationHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+}
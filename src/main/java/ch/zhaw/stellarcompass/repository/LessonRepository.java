@@ -1,10 +1,37 @@
 package ch.zhaw.stellarcompass.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import ch.zhaw.stellarcompass.model.Lesson;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface LessonRepository extends MongoRepository<Lesson, String> {
     // Find alle Lessons that belong to a Subject
     List<Lesson> findBySubjectId(String subjectId);
-}
\ No newline at end of file
+
+    // Keyset pagination on _id: first page, then everything after the last seen id
+    List<Lesson> findAllByOrderByIdAsc(Limit limit);
+    List<Lesson> findByIdGreaterThanOrderByIdAsc(String lastId, Limit limit);
+
+    List<Lesson> findBySubjectIdOrderByIdAsc(String subjectId, Limit limit);
+    List<Lesson> findBySubjectIdAndIdGreaterThanOrderByIdAsc(String subjectId, String lastId, Limit limit);
+
+    // Summary listing: field projection, so the (large) content is never read nor sent over the wire
+    @Query(value = "{ 'subjectId': ?0 }",
+           fields = "{ 'title': 1, 'contentType': 1, 'videoUrl': 1 }",
+           sort = "{ '_id': 1 }")
+    List<Lesson> findSummariesBySubjectId(String subjectId, Limit limit);
+
+    @Query(value = "{ 'subjectId': ?0, '_id': { '$gt': ?1 } }",
+           fields = "{ 'title': 1, 'contentType': 1, 'videoUrl': 1 }",
+           sort = "{ '_id': 1 }")
+    List<Lesson> findSummariesBySubjectIdAfter(String subjectId, String lastId, Limit limit);
+
+    // Backed by a server-side cursor (MongoTemplate.stream), documents are fetched in batches while iterating.
+    // The stream must be closed to release the cursor.
+    @Meta(cursorBatchSize = 500)
+    Stream<Lesson> streamAllBy();
+}
@@ -1,9 +1,18 @@
 package ch.zhaw.stellarcompass.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import ch.zhaw.stellarcompass.model.Subject;
 
 public interface SubjectRepository extends MongoRepository<Subject, String> {
     //Standard CRUD is provided by MongoRepository
+
+    // Which of the given ids exist: one $in query, only the _id is returned
+    // (derived query, so the ids are converted to ObjectIds like in findById)
+    @Query(fields = "{ '_id': 1 }")
+    List<Subject> findIdsByIdIn(Collection<String> ids);
 }
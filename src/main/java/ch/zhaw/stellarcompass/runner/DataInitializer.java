@@ -18,7 +18,8 @@ import ch.zhaw.stellarcompass.repository.SubjectRepository;
  */
 
 @Component
-@Profile("!test") // Do not run this initializer when the 'test' profile is active since I use mockito there.
+@Profile("!test & !synthetic-data") // Do not run this initializer when the 'test' profile is active since I use mockito there.
+// With the 'synthetic-data' profile SyntheticDataGenerator creates a large data set instead
 //this data initializer is only for development, fronted and manual testing purposes
 public class DataInitializer implements CommandLineRunner {
 
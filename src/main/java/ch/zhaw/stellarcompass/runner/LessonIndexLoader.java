@@ -0,0 +1,105 @@
+package ch.zhaw.stellarcompass.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+/**
+ * Fills the in-process LessonIndex from the lessons collection once the application is ready
+ * (after the other runners, so seed data is included).
+ * The scan is split by subject: the subject ids come from a distinct on lessons.subjectId, are dealt out to
+ * "parallelism" tasks on the application task executor, and every task streams the lessons of its subjects
+ * (served by the subject listing index) and tokenizes them in parallel with the others.
+ * Writes through LessonService during the load are applied to the index directly; the versions keep the
+ * loader from overwriting them with what it read before.
+ */
+@Component
+@ConditionalOnProperty(name = "stellarcompass.lesson-index.enabled", havingValue = "true", matchIfMissing = true)
+public class LessonIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(LessonIndexLoader.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${stellarcompass.lesson-index.parallelism:4}")
+    private int parallelism;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long start = System.currentTimeMillis();
+        long lessons = load();
+        log.info("Indexed {} lessons for search in {} ms, {}", lessons, System.currentTimeMillis() - start,
+                lessonIndex.memoryReport());
+    }
+
+    // Returns the number of lessons read
+    public long load() {
+        List<String> subjectIds = mongoTemplate.findDistinct(new Query(), "subjectId", Lesson.class, String.class)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        int tasks = Math.max(1, Math.min(parallelism, subjectIds.size()));
+        List<List<String>> partitions = new ArrayList<>();
+        for (int task = 0; task < tasks; task++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < subjectIds.size(); i++) {
+            partitions.get(i % tasks).add(subjectIds.get(i));
+        }
+
+        lessonIndex.beginLoad();
+        AtomicLong read = new AtomicLong();
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (List<String> partition : partitions) {
+                futures.add(taskExecutor.submitCompletable(() -> indexLessons(Criteria.where("subjectId").in(partition), read)));
+            }
+            // Lessons without a subject are searchable as well
+            futures.add(taskExecutor.submitCompletable(() -> indexLessons(Criteria.where("subjectId").is(null), read)));
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            lessonIndex.endLoad();
+        }
+        return read.get();
+    }
+
+    private Void indexLessons(Criteria criteria, AtomicLong read) {
+        Query query = Query.query(criteria);
+        query.fields().include("title", "content", "subjectId", "contentType", "videoUrl", "version");
+        try (Stream<Lesson> lessons = mongoTemplate.stream(query, Lesson.class)) {
+            lessons.forEach(lesson -> {
+                lessonIndex.index(lesson);
+                read.incrementAndGet();
+            });
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package ch.zhaw.stellarcompass.runner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.config.CacheConfig;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.repository.SubjectRepository;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+/**
+ * Removes lessons whose subject no longer exists (left behind by subject deletes before they cascaded,
+ * or by a lesson created while its subject was deleted).
+ * No lesson is loaded: the referenced subject ids come from a distinct on lessons.subjectId (served by the
+ * subject listing index), are checked against the subjects in batches, and the lessons of missing subjects
+ * are removed with one deleteMany per batch.
+ * Runs every stellarcompass.orphan-sweep.interval (first run after one interval).
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "stellarcompass.orphan-sweep.enabled", havingValue = "true", matchIfMissing = true)
+public class OrphanLessonSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanLessonSweeper.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    @Value("${stellarcompass.lesson-index.enabled:true}")
+    private boolean lessonIndexEnabled;
+
+    // Subject ids per existence check and deleteMany
+    @Value("${stellarcompass.orphan-sweep.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${stellarcompass.orphan-sweep.interval:PT1H}",
+            initialDelayString = "${stellarcompass.orphan-sweep.interval:PT1H}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    // Returns the number of removed lessons
+    public long sweep() {
+        // Referenced ids are read before the existing ones, so a subject created in between is never taken for deleted
+        List<String> referenced = mongoTemplate.findDistinct(new Query(), "subjectId", Lesson.class, String.class)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+
+        long removed = 0;
+        for (int from = 0; from < referenced.size(); from += batchSize) {
+            List<String> batch = referenced.subList(from, Math.min(from + batchSize, referenced.size()));
+            Set<String> existing = subjectRepository.findIdsByIdIn(batch).stream()
+                    .map(Subject::getId)
+                    .collect(Collectors.toSet());
+            Set<String> orphaned = new HashSet<>(batch);
+            orphaned.removeAll(existing);
+            if (!orphaned.isEmpty()) {
+                removed += mongoTemplate.remove(Query.query(Criteria.where("subjectId").in(orphaned)), Lesson.class)
+                        .getDeletedCount();
+                if (lessonIndexEnabled) {
+                    lessonIndex.removeSubjects(orphaned);
+                }
+            }
+        }
+
+        if (removed > 0) {
+            // The removed lessons are not known by id
+            Cache lessons = cacheManager.getCache(CacheConfig.LESSON_BY_ID);
+            if (lessons != null) {
+                lessons.clear();
+            }
+            log.info("Removed {} lessons of deleted subjects", removed);
+        }
+        return removed;
+    }
+}
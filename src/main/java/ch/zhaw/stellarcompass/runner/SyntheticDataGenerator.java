@@ -0,0 +1,232 @@
+package ch.zhaw.stellarcompass.runner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.model.UserRole;
+
+/**
+ * Generates a production-sized data set for load tests and capacity planning (profile "synthetic-data",
+ * instead of the small DataInitializer seed). Sizes are configured in SyntheticDataProperties.
+ *
+ * Every document is derived from (seed, index) only, so the data set is reproducible no matter in which
+ * order the parallel tasks run: ids are built from the index as well, which also keeps the _id order of
+ * the lessons equal to their generation order. Documents are written with unordered bulk inserts by
+ * "parallelism" tasks on the application task executor (virtual threads in the "virtual-threads" profile).
+ * After dropping the collections the indexes are built once at the end, which is faster than maintaining
+ * them during the load.
+ */
+@Component
+@Profile(SyntheticDataGenerator.PROFILE)
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    public static final String PROFILE = "synthetic-data";
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    // Fixed ObjectId timestamp (2024-01-01), the remaining 8 bytes are the document type and its index
+    private static final int ID_TIMESTAMP = 1_704_067_200;
+    private static final byte SUBJECT_ID = 1;
+    private static final byte LESSON_ID = 2;
+    private static final byte USER_ID = 3;
+
+    private static final String[] WORDS = {
+        "learning", "school", "lesson", "number", "reading", "writing", "history", "science", "health", "family",
+        "water", "garden", "market", "village", "letter", "question", "answer", "example", "practice", "story",
+        "kitab", "maktab", "danesh", "dars", "qalam", "sabaq", "shagerd", "ustad", "zaban", "hesab",
+        "the", "a", "and", "of", "to", "in", "is", "with", "for", "on", "we", "this", "every", "how", "why"
+    };
+
+    private static final String[] SUBJECT_AREAS = {
+        "Mathematics", "Dari", "Pashto", "English", "Biology", "Chemistry", "Physics", "History", "Geography",
+        "Health", "Computer Science", "Business", "Art", "Religion", "Civics"
+    };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SyntheticDataProperties properties;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    public record Summary(int subjects, int lessons, int users, long millis) {
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!properties.dropExisting() && mongoTemplate.count(new Query(), Subject.class) > 0) {
+            log.info("Synthetic data: subjects already present, skipping (set stellarcompass.synthetic-data.drop-existing=true to regenerate)");
+            return;
+        }
+        Summary summary = generate();
+        log.info("Synthetic data: {} subjects, {} lessons, {} users in {} ms",
+                summary.subjects(), summary.lessons(), summary.users(), summary.millis());
+    }
+
+    public Summary generate() {
+        long start = System.currentTimeMillis();
+        if (properties.dropExisting()) {
+            mongoTemplate.dropCollection(Lesson.class);
+            mongoTemplate.dropCollection(Subject.class);
+            mongoTemplate.dropCollection(User.class);
+        }
+
+        int lessons = properties.subjects() * properties.lessonsPerSubject();
+        insertInParallel(Subject.class, properties.subjects(), this::subject);
+        insertInParallel(Lesson.class, lessons, this::lesson);
+        insertInParallel(User.class, properties.users(), this::user);
+
+        ensureIndexes(Subject.class);
+        ensureIndexes(Lesson.class);
+        ensureIndexes(User.class);
+        return new Summary(properties.subjects(), lessons, properties.users(), System.currentTimeMillis() - start);
+    }
+
+    // The index range is split into "parallelism" stripes, each task inserts its stripe batch by batch
+    private <T> void insertInParallel(Class<T> type, int count, IntFunction<T> factory) {
+        int tasks = Math.max(1, Math.min(properties.parallelism(), count));
+        int stripe = (count + tasks - 1) / tasks;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < count; from += stripe) {
+            int start = from;
+            int end = Math.min(count, from + stripe);
+            futures.add(taskExecutor.submitCompletable(() -> insertRange(type, start, end, factory)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private <T> Void insertRange(Class<T> type, int from, int to, IntFunction<T> factory) {
+        List<T> batch = new ArrayList<>(properties.batchSize());
+        for (int i = from; i < to; i++) {
+            batch.add(factory.apply(i));
+            if (batch.size() == properties.batchSize()) {
+                mongoTemplate.bulkOps(BulkMode.UNORDERED, type).insert(batch).execute();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, type).insert(batch).execute();
+        }
+        return null;
+    }
+
+    private void ensureIndexes(Class<?> type) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        resolver.resolveIndexFor(type).forEach(index -> mongoTemplate.indexOps(type).createIndex(index));
+    }
+
+    Subject subject(int index) {
+        SplittableRandom random = random(SUBJECT_ID, index);
+        // Titles are unique (unique index on Subject.title)
+        String title = SUBJECT_AREAS[index % SUBJECT_AREAS.length] + " " + (index / SUBJECT_AREAS.length + 1);
+        Subject subject = new Subject(title, sentence(random, 8 + random.nextInt(16)));
+        subject.setId(id(SUBJECT_ID, index));
+        subject.setVersion(0L); // Bulk inserts do not initialize @Version like save() does
+        return subject;
+    }
+
+    Lesson lesson(int index) {
+        SplittableRandom random = random(LESSON_ID, index);
+        int subject = index / properties.lessonsPerSubject();
+        Lesson lesson = new Lesson(capitalize(sentence(random, 2 + random.nextInt(6))), content(random),
+                id(SUBJECT_ID, subject));
+        lesson.setId(id(LESSON_ID, index));
+        lesson.setVersion(0L);
+        if (random.nextDouble() < properties.videoShare()) {
+            lesson.setContentType("VIDEO");
+            lesson.setVideoUrl("https://youtube.com/watch?v=synthetic" + index);
+        } else {
+            lesson.setContentType("TEXT");
+        }
+        return lesson;
+    }
+
+    // Admins first, then mentors, then students; every student gets a mentor (round robin)
+    User user(int index) {
+        int admins = (int) Math.ceil(properties.users() * properties.adminShare());
+        int mentors = Math.max(1, (int) Math.ceil(properties.users() * properties.mentorShare()));
+        UserRole role = index < admins ? UserRole.ADMIN
+                : index < admins + mentors ? UserRole.MENTOR
+                : UserRole.STUDENT;
+        String prefix = role.name().toLowerCase();
+        User user = new User(prefix + index + "@synthetic.stellarcompass.ch", capitalize(prefix) + " " + index, role);
+        user.setId(id(USER_ID, index));
+        user.setAuth0Id("synthetic|" + index);
+        user.setVersion(0L);
+        if (role == UserRole.STUDENT) {
+            user.setMentorId(id(USER_ID, admins + (index - admins - mentors) % mentors));
+        }
+        return user;
+    }
+
+    static String id(byte type, int index) {
+        ByteBuffer bytes = ByteBuffer.allocate(12);
+        bytes.putInt(ID_TIMESTAMP);
+        bytes.put(type);
+        bytes.put((byte) 0);
+        bytes.put((byte) 0);
+        bytes.put((byte) 0);
+        bytes.putInt(index);
+        return new ObjectId(bytes.array()).toHexString();
+    }
+
+    private SplittableRandom random(byte type, int index) {
+        return new SplittableRandom(properties.seed() * 31 + type * 1_000_003L + index);
+    }
+
+    // Markdown with a heading and paragraphs; the length is skewed towards short lessons
+    private String content(SplittableRandom random) {
+        double skew = random.nextDouble();
+        int length = properties.minContentChars()
+                + (int) ((properties.maxContentChars() - properties.minContentChars()) * skew * skew);
+        StringBuilder content = new StringBuilder(length + 64);
+        content.append("# ").append(capitalize(sentence(random, 3))).append("\n\n");
+        while (content.length() < length) {
+            content.append(capitalize(sentence(random, 40 + random.nextInt(80)))).append(".\n\n");
+        }
+        content.setLength(length);
+        return content.toString();
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
@@ -0,0 +1,29 @@
+package ch.zhaw.stellarcompass.runner;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Size and shape of the synthetic data set (profile "synthetic-data", see SyntheticDataGenerator).
+ * The same seed always produces the same documents, including their ids.
+ */
+@ConfigurationProperties(prefix = "stellarcompass.synthetic-data")
+public record SyntheticDataProperties(
+        @DefaultValue("100") int subjects,
+        @DefaultValue("50") int lessonsPerSubject,
+        @DefaultValue("10000") int users,
+        // Share of the users that are mentors and admins, the rest are students
+        @DefaultValue("0.05") double mentorShare,
+        @DefaultValue("0.005") double adminShare,
+        // Lesson content length in characters, most lessons are short, a few are long
+        @DefaultValue("500") int minContentChars,
+        @DefaultValue("20000") int maxContentChars,
+        // Share of the lessons with a video
+        @DefaultValue("0.3") double videoShare,
+        @DefaultValue("42") long seed,
+        @DefaultValue("1000") int batchSize,
+        // Number of concurrent insert tasks
+        @DefaultValue("4") int parallelism,
+        // Drop lessons, subjects and users first (otherwise nothing is generated if subjects exist)
+        @DefaultValue("false") boolean dropExisting) {
+}
@@ -0,0 +1,52 @@
+package ch.zhaw.stellarcompass.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+
+/**
+ * Gives documents written before @Version was introduced (or by other tools) version 0.
+ * Without it, save() takes a loaded document with a null version for a new one and tries to insert it again,
+ * and such a document could not be updated with If-Match (its ETag is a fingerprint, not a version).
+ * One updateMany per collection on startup; once all documents have a version it matches nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "stellarcompass.version-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class VersionBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    // Returns the number of documents that got a version
+    public long backfill() {
+        long updated = 0;
+        for (Class<?> type : new Class<?>[] { Lesson.class, Subject.class, User.class }) {
+            long count = mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), type).getModifiedCount();
+            if (count > 0) {
+                log.info("Initialized the version of {} {} documents", count, mongoTemplate.getCollectionName(type));
+            }
+            updated += count;
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,119 @@
+package ch.zhaw.stellarcompass.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * TextAnalyzer in three steps:
+ * 1. a normalizer on the whole text (e.g. Unicode presentation forms),
+ * 2. foldings on every code point, in order; a folding returns REMOVE to drop the code point without ending the word,
+ *    or SPLIT for a point where a word may be written apart as well (the ZWNJ of Dari/Pashto compounds),
+ * 3. the folded text is split into runs of letters and digits, everything else separates terms.
+ * A word with SPLIT points is indexed as the joined word and as its parts: "کتاب‌ها" (books) is found by
+ * "کتابها", "کتاب ها" and "کتاب". Queries only use the joined word, they must not require the parts.
+ * Terms longer than MAX_TERM_LENGTH are skipped (base64, URLs without separators, ...).
+ */
+public final class AnalyzerPipeline implements TextAnalyzer {
+
+    public static final int REMOVE = -1;
+    public static final int SPLIT = -2;
+    public static final int MAX_TERM_LENGTH = 64;
+
+    private final UnaryOperator<String> normalizer;
+    private final IntUnaryOperator[] foldings;
+
+    public AnalyzerPipeline(UnaryOperator<String> normalizer, IntUnaryOperator... foldings) {
+        this.normalizer = normalizer;
+        this.foldings = foldings.clone();
+    }
+
+    // Lower case only
+    public static AnalyzerPipeline standard() {
+        return new AnalyzerPipeline(UnaryOperator.identity(), Character::toLowerCase);
+    }
+
+    // Lower case plus the Arabic-script variants of Dari and Pashto (see ArabicScriptFolding)
+    public static AnalyzerPipeline dariPashto() {
+        return new AnalyzerPipeline(ArabicScriptFolding::normalizePresentationForms,
+                ArabicScriptFolding.INSTANCE, Character::toLowerCase);
+    }
+
+    @Override
+    public List<String> analyze(String text) {
+        return analyze(text, true);
+    }
+
+    @Override
+    public List<String> analyzeQuery(String text) {
+        return analyze(text, false);
+    }
+
+    private List<String> analyze(String text, boolean withParts) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = normalizer.apply(text);
+        StringBuilder term = new StringBuilder();
+        // Positions of the SPLIT points in term, only filled for a word that has any
+        List<Integer> splits = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int folded = fold(codePoint);
+            if (folded == REMOVE) {
+                continue;
+            }
+            if (folded == SPLIT) {
+                if (withParts && term.length() > 0) {
+                    splits.add(term.length());
+                }
+            } else if (Character.isLetterOrDigit(folded)) {
+                term.appendCodePoint(folded);
+            } else {
+                addTerms(term, splits, terms);
+            }
+        }
+        addTerms(term, splits, terms);
+        return terms;
+    }
+
+    private int fold(int codePoint) {
+        for (IntUnaryOperator folding : foldings) {
+            codePoint = folding.applyAsInt(codePoint);
+            if (codePoint < 0) {
+                break;
+            }
+        }
+        return codePoint;
+    }
+
+    // The word, then its parts
+    private static void addTerms(StringBuilder term, List<Integer> splits, List<String> terms) {
+        if (term.length() == 0) {
+            splits.clear();
+            return;
+        }
+        addTerm(term, 0, term.length(), terms);
+        int start = 0;
+        for (int split : splits) {
+            if (split > start && split < term.length()) {
+                addTerm(term, start, split, terms);
+                start = split;
+            }
+        }
+        if (start > 0) {
+            addTerm(term, start, term.length(), terms);
+        }
+        term.setLength(0);
+        splits.clear();
+    }
+
+    private static void addTerm(StringBuilder term, int start, int end, List<String> terms) {
+        if (end - start <= MAX_TERM_LENGTH) {
+            terms.add(term.substring(start, end));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ch.zhaw.stellarcompass.search;
+
+import java.text.Normalizer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Folds the spelling variants of Arabic-script text in Dari and Pashto onto one form, code point by code point.
+ * Arabic, Persian and Pashto keyboards produce different code points for the same letter, and diacritics,
+ * tatweel and zero-width (non-)joiners are optional in writing: without folding each of them turns a word
+ * into a different term, and the tokenizer would even split a word at a diacritic or a ZWNJ.
+ * - Arabic yeh and alef maksura -> Farsi yeh (Pashto uses both yehs in endings, but writers mix them)
+ * - Arabic kaf and swash kaf -> keheh, Pashto gaf with ring -> gaf
+ * - Alef with madda or hamza and alef wasla -> alef, waw with hamza -> waw
+ * - Teh marbuta, heh with yeh, heh goal and ae -> heh
+ * - Arabic-Indic and Persian digits -> ASCII digits
+ * - Harakat, superscript alef, Quranic marks, tatweel, ZWJ and direction marks are removed
+ * - ZWNJ joins the word, but its parts are indexed as well (AnalyzerPipeline.SPLIT)
+ * Pashto letters without a Persian counterpart (e.g. ټ ډ ړ ږ ښ ڼ ې ۍ) and Latin text are left alone.
+ */
+final class ArabicScriptFolding implements IntUnaryOperator {
+
+    static final ArabicScriptFolding INSTANCE = new ArabicScriptFolding();
+
+    private ArabicScriptFolding() {
+    }
+
+    @Override
+    public int applyAsInt(int c) {
+        if (c < 0x00AD) {
+            return c; // ASCII and most of Latin-1, the common case
+        }
+        switch (c) {
+            case 0x064A, 0x0649 -> { return 0x06CC; }                 // ي ى -> ی
+            case 0x0643, 0x06AA -> { return 0x06A9; }                 // ك ڪ -> ک
+            case 0x06AB -> { return 0x06AF; }                         // ګ -> گ
+            case 0x0622, 0x0623, 0x0625, 0x0671 -> { return 0x0627; } // آ أ إ ٱ -> ا
+            case 0x0624 -> { return 0x0648; }                         // ؤ -> و
+            case 0x0629, 0x06C0, 0x06C1, 0x06D5 -> { return 0x0647; } // ة ۀ ہ ە -> ه
+            case 0x0640,                                              // tatweel
+                 0x00AD,                                              // soft hyphen
+                 0x061C, 0x200E, 0x200F,                              // direction marks
+                 0x200D,                                              // ZWJ
+                 0xFEFF -> { return AnalyzerPipeline.REMOVE; }
+            case 0x200C -> { return AnalyzerPipeline.SPLIT; }        // ZWNJ
+            default -> {
+                // no single code point
+            }
+        }
+        if (c >= 0x0660 && c <= 0x0669) {
+            return '0' + (c - 0x0660);
+        }
+        if (c >= 0x06F0 && c <= 0x06F9) {
+            return '0' + (c - 0x06F0);
+        }
+        if ((c >= 0x064B && c <= 0x065F) || c == 0x0670 || (c >= 0x06D6 && c <= 0x06ED && c != 0x06E5 && c != 0x06E6)) {
+            return AnalyzerPipeline.REMOVE; // harakat, hamza above/below, superscript alef, Quranic marks
+        }
+        return c;
+    }
+
+    // Presentation forms (contextual glyphs and ligatures like lam-alef, pasted from PDFs) are turned into
+    // the plain letters first. NFKC is only run for text that contains any, it is much slower than the folding.
+    static String normalizePresentationForms(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= 0xFB50 && c <= 0xFDFF) || (c >= 0xFE70 && c <= 0xFEFC)) {
+                return Normalizer.normalize(text, Normalizer.Form.NFKC);
+            }
+        }
+        return text;
+    }
+}
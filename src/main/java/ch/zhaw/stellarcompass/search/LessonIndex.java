@@ -0,0 +1,519 @@
+package ch.zhaw.stellarcompass.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+
+/**
+ * In-process inverted index over lesson titles and content, for search-as-you-type without a MongoDB round trip.
+ * Every indexed lesson gets a dense ordinal (0, 1, 2, ...). The postings of a term are two int arrays (ordinals
+ * ascending, term frequencies), everything else about a lesson lives in arrays indexed by its ordinal.
+ * Ranking is BM25; a title word counts TITLE_WEIGHT times, like in the MongoDB text index (see Lesson).
+ *
+ * A changed lesson is not updated in place: its old ordinal becomes a tombstone and the lesson is appended
+ * under a new one, so postings stay sorted and are only ever appended to. Once a quarter of the ordinals are
+ * tombstones the index is compacted. Stale writes are ignored by the lesson version (@Version), which makes it
+ * safe to fill the index (LessonIndexLoader) while LessonService already applies changes to it.
+ * Searches share a read lock; tokenizing happens outside the write lock, only the append holds it.
+ * Lesson text and queries go through the same TextAnalyzer (see SearchConfig).
+ */
+@Component
+public class LessonIndex {
+
+    public static final int TITLE_WEIGHT = 5;
+    public static final int MAX_RESULTS = 50;
+
+    // BM25 defaults
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    // A short prefix matches a large part of the dictionary, only the first terms (alphabetically) are used
+    static final int MAX_PREFIX_TERMS = 128;
+
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    public record MemoryReport(boolean ready, int lessons, int tombstones, int terms, long postings,
+            long dictionaryBytes, long postingsBytes, long lessonBytes, long totalBytes) {
+    }
+
+    private final TextAnalyzer analyzer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term dictionary, sorted for prefix queries
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Current ordinal of every indexed lesson
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    // Per ordinal
+    private String[] ids = new String[16];
+    private String[] subjectIds = new String[16];
+    private String[] titles = new String[16];
+    private String[] contentTypes = new String[16];
+    private long[] versions = new long[16];
+    private int[] lengths = new int[16];
+    private final BitSet videos = new BitSet();
+    private final BitSet deleted = new BitSet();
+
+    private int size;
+    private int live;
+    private long totalLength;
+
+    // While the loader runs, removals have to outlive the lesson they remove: the loader may still
+    // hold the removed lesson and index it afterwards
+    private boolean loading;
+    private final Set<String> removedIds = new HashSet<>();
+    private final Set<String> removedSubjects = new HashSet<>();
+    private volatile boolean ready;
+
+    public LessonIndex() {
+        this(AnalyzerPipeline.dariPashto());
+    }
+
+    @Autowired
+    public LessonIndex(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    // ==================== Writes ====================
+
+    // Adds the lesson or replaces its indexed state. A lesson that is not newer than the indexed one is ignored.
+    public void index(Lesson lesson) {
+        if (lesson == null || lesson.getId() == null) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(lesson.getTitle(), TITLE_WEIGHT, frequencies) + addTerms(lesson.getContent(), 1, frequencies);
+        long version = lesson.getVersion() != null ? lesson.getVersion() : -1;
+
+        lock.writeLock().lock();
+        try {
+            if (loading && (removedIds.contains(lesson.getId()) || removedSubjects.contains(lesson.getSubjectId()))) {
+                return;
+            }
+            Integer current = ordinals.get(lesson.getId());
+            if (current != null) {
+                if (version >= 0 && versions[current] >= version) {
+                    return;
+                }
+                tombstone(current);
+            }
+            append(lesson, version, length, frequencies);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                removedIds.add(id);
+            }
+            Integer current = ordinals.get(id);
+            if (current != null) {
+                tombstone(current);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // For the lessons removed with their subject (SubjectService, OrphanLessonSweeper): one pass over the ordinals
+    public void removeSubjects(Collection<String> subjectIds) {
+        if (subjectIds.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                removedSubjects.addAll(subjectIds);
+            }
+            for (int ordinal = deleted.nextClearBit(0); ordinal < size; ordinal = deleted.nextClearBit(ordinal + 1)) {
+                if (subjectIds.contains(this.subjectIds[ordinal])) {
+                    tombstone(ordinal);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Between beginLoad and endLoad lessons removed so far stay removed, even if the loader indexes them later
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            removedIds.clear();
+            removedSubjects.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void append(Lesson lesson, long version, int length, Map<String, Integer> frequencies) {
+        int ordinal = size++;
+        if (ordinal == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            subjectIds = Arrays.copyOf(subjectIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            contentTypes = Arrays.copyOf(contentTypes, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        ids[ordinal] = lesson.getId();
+        subjectIds[ordinal] = lesson.getSubjectId();
+        titles[ordinal] = lesson.getTitle();
+        contentTypes[ordinal] = lesson.getContentType();
+        versions[ordinal] = version;
+        lengths[ordinal] = length;
+        videos.set(ordinal, lesson.getVideoUrl() != null && !lesson.getVideoUrl().isBlank());
+        ordinals.put(lesson.getId(), ordinal);
+        // New ordinals are the largest so far, the postings stay sorted
+        frequencies.forEach((term, frequency) -> terms.computeIfAbsent(term, key -> new Postings()).add(ordinal, frequency));
+        live++;
+        totalLength += length;
+    }
+
+    private void tombstone(int ordinal) {
+        deleted.set(ordinal);
+        ordinals.remove(ids[ordinal], ordinal);
+        // The title is only needed for hits, the id and subject still identify the tombstone
+        titles[ordinal] = null;
+        contentTypes[ordinal] = null;
+        live--;
+        totalLength -= lengths[ordinal];
+    }
+
+    // Rewrites all postings without the tombstones, with the remaining lessons renumbered in their order
+    private void compactIfNeeded() {
+        int tombstones = size - live;
+        if (size < MIN_COMPACTION_SIZE || tombstones < size / 4) {
+            return;
+        }
+        int[] remap = new int[size];
+        int next = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = next;
+            ids[next] = ids[ordinal];
+            subjectIds[next] = subjectIds[ordinal];
+            titles[next] = titles[ordinal];
+            contentTypes[next] = contentTypes[ordinal];
+            versions[next] = versions[ordinal];
+            lengths[next] = lengths[ordinal];
+            videos.set(next, videos.get(ordinal));
+            next++;
+        }
+        Arrays.fill(ids, next, size, null);
+        Arrays.fill(subjectIds, next, size, null);
+        Arrays.fill(titles, next, size, null);
+        Arrays.fill(contentTypes, next, size, null);
+        videos.clear(next, size);
+        deleted.clear();
+        size = next;
+        ordinals.replaceAll((id, ordinal) -> remap[ordinal]);
+        terms.values().removeIf(postings -> postings.remap(remap) == 0);
+    }
+
+    // ==================== Search ====================
+
+    // All words of the query have to match (AND). The last word is matched as a prefix while it is being typed,
+    // i.e. unless the query ends with a space. Returns at most limit hits (1..MAX_RESULTS), best first.
+    public List<LessonSearchHitDTO> search(String query, String subjectId, int limit) {
+        List<String> words = analyzer.analyzeQuery(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        int maxResults = limit <= 0 ? MAX_RESULTS : Math.min(limit, MAX_RESULTS);
+        String subject = subjectId == null || subjectId.isBlank() ? null : subjectId;
+
+        lock.readLock().lock();
+        try {
+            if (live == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / live;
+            Matches matches = null;
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                Matches wordMatches = i == words.size() - 1 && lastIsPrefix
+                        ? prefixMatches(word, subject, averageLength)
+                        : termMatches(terms.get(word), subject, averageLength);
+                matches = matches == null ? wordMatches : matches.intersect(wordMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return topHits(matches, maxResults);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Matches termMatches(Postings postings, String subject, double averageLength) {
+        if (postings == null) {
+            return Matches.EMPTY;
+        }
+        double idf = idf(postings.liveCount(deleted));
+        Matches matches = new Matches(postings.size);
+        for (int i = 0; i < postings.size; i++) {
+            int ordinal = postings.docs[i];
+            if (!deleted.get(ordinal) && (subject == null || subject.equals(subjectIds[ordinal]))) {
+                matches.add(ordinal, score(idf, postings.freqs[i], lengths[ordinal], averageLength));
+            }
+        }
+        return matches;
+    }
+
+    // The expanded terms are merged by ordinal; a lesson containing several of them scores with the best one
+    private Matches prefixMatches(String prefix, String subject, double averageLength) {
+        NavigableMap<String, Postings> expansion = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (expansion.isEmpty()) {
+            return Matches.EMPTY;
+        }
+        Matches merged = null;
+        int expanded = 0;
+        for (Postings postings : expansion.values()) {
+            Matches matches = termMatches(postings, subject, averageLength);
+            merged = merged == null ? matches : merged.union(matches);
+            if (++expanded == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return merged;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (live - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double score(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    // Bounded min-heap, ties go to the lower ordinal (the older lesson). The matches come in ordinal order,
+    // so once the heap is full only a strictly better score can get in and most matches are skipped.
+    private List<LessonSearchHitDTO> topHits(Matches matches, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> matches.scores[a] != matches.scores[b]
+                ? Double.compare(matches.scores[a], matches.scores[b])
+                : Integer.compare(matches.docs[b], matches.docs[a]));
+        for (int i = 0; i < matches.size; i++) {
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (matches.scores[i] > matches.scores[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        LessonSearchHitDTO[] hits = new LessonSearchHitDTO[heap.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int match = heap.poll();
+            int ordinal = matches.docs[match];
+            hits[i] = new LessonSearchHitDTO(ids[ordinal], titles[ordinal], subjectIds[ordinal], contentTypes[ordinal],
+                    videos.get(ordinal), matches.scores[match]);
+        }
+        return List.of(hits);
+    }
+
+    // ==================== Memory ====================
+
+    // Estimated heap usage (64-bit JVM with compressed references), for /actuator/lessonindex
+    public MemoryReport memoryReport() {
+        lock.readLock().lock();
+        try {
+            long dictionaryBytes = 0;
+            long postingsBytes = 0;
+            long postings = 0;
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                dictionaryBytes += 40 + stringBytes(entry.getKey()); // TreeMap entry + key
+                postingsBytes += entry.getValue().bytes();
+                postings += entry.getValue().size;
+            }
+            // Four reference arrays, versions and lengths, the two bit sets, the id -> ordinal map (node + boxed ordinal)
+            long lessonBytes = 4 * (16 + 4L * ids.length) + (16 + 8L * versions.length) + (16 + 4L * lengths.length)
+                    + (videos.size() + deleted.size()) / 8
+                    + ordinals.size() * 48L;
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                lessonBytes += stringBytes(ids[ordinal]) + stringBytes(subjectIds[ordinal]) + stringBytes(titles[ordinal]);
+            }
+            return new MemoryReport(ready, live, size - live, terms.size(), postings,
+                    dictionaryBytes, postingsBytes, lessonBytes, dictionaryBytes + postingsBytes + lessonBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long stringBytes(String value) {
+        // String + byte[] headers, Latin-1 strings take one byte per character
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    // ==================== Analyzing ====================
+
+    // Returns the number of words times the weight (the field's share of the lesson length)
+    private int addTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> tokens = analyzer.analyze(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    // ==================== Postings ====================
+
+    // Ordinals (ascending) and frequencies of one term
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        // Document frequency without the tombstones
+        int liveCount(BitSet deleted) {
+            if (deleted.isEmpty()) {
+                return size;
+            }
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(docs[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // Returns the new size, the remapping keeps the order
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (kept < docs.length / 2) {
+                docs = Arrays.copyOf(docs, Math.max(kept, 2));
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+            return kept;
+        }
+
+        long bytes() {
+            return 24 + 2 * (16 + 4L * docs.length);
+        }
+    }
+
+    // Matching ordinals (ascending) with their score so far
+    private static final class Matches {
+
+        static final Matches EMPTY = new Matches(0);
+
+        private final int[] docs;
+        private final double[] scores;
+        private int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void add(int doc, double score) {
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        // Both words match: the scores add up
+        Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    result.add(docs[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        // Alternatives for the same word: the better score counts
+        Matches union(Matches other) {
+            Matches result = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    result.add(docs[i], scores[i]);
+                    i++;
+                } else if (i == size || docs[i] > other.docs[j]) {
+                    result.add(other.docs[j], other.scores[j]);
+                    j++;
+                } else {
+                    result.add(docs[i], Math.max(scores[i], other.scores[j]));
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ch.zhaw.stellarcompass.search;
+
+import java.util.List;
+
+/**
+ * Turns lesson text into the terms of the LessonIndex. The same analyzer runs at index time and at query time,
+ * so a query matches whenever both spellings end up as the same terms.
+ * Implementations have to be thread-safe, the index calls them from concurrent requests.
+ */
+public interface TextAnalyzer {
+
+    // The terms of lesson text, duplicates included. Empty for null or text without words.
+    List<String> analyze(String text);
+
+    // The terms of a query, in query order. Differs from analyze only if lesson text is indexed
+    // with additional forms that a query must not require (see AnalyzerPipeline.SPLIT).
+    default List<String> analyzeQuery(String text) {
+        return analyze(text);
+    }
+}
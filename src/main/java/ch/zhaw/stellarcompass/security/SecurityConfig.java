@@ -2,7 +2,6 @@ package ch.zhaw.stellarcompass.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -23,10 +22,16 @@ public class SecurityConfig {
                 .requestMatchers("/*").permitAll()
             // Require authentication for all other API endpoints
                 .requestMatchers("/api/**").authenticated()
+            // Health is public (container health checks), all other actuator endpoints (metrics, query shapes,
+            // index sizes) are for admins only (ROLE_ authority from UserRolesAuthenticationConverter)
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
             // Permit all other requests (e.g., frontend routes)
                 .requestMatchers("/**").permitAll()           
             )
-            .oauth2ResourceServer((oauth2) -> oauth2.jwt(Customizer.withDefaults()));
+            // The roles are parsed once per request (see UserRolesAuthenticationConverter)
+            .oauth2ResourceServer((oauth2) -> oauth2.jwt(jwt -> jwt
+                .jwtAuthenticationConverter(new UserRolesAuthenticationConverter())));
 
         return http.build();
     }
@@ -0,0 +1,52 @@
+package ch.zhaw.stellarcompass.security;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+
+// Authentication for a JWT whose "user_roles" claim was parsed once by UserRolesAuthenticationConverter.
+// A role check is then a lookup in an EnumSet (a bit mask) instead of a scan over the claim.
+public class UserRolesAuthentication extends JwtAuthenticationToken {
+
+    private static final Map<String, UserRole> ROLES_BY_NAME = new HashMap<>();
+
+    static {
+        for (UserRole role : UserRole.values()) {
+            ROLES_BY_NAME.put(role.name(), role);
+        }
+    }
+
+    private final Set<UserRole> roles;
+
+    public UserRolesAuthentication(Jwt jwt, Collection<? extends GrantedAuthority> authorities, Set<UserRole> roles) {
+        super(jwt, authorities, jwt.getSubject());
+        this.roles = Collections.unmodifiableSet(roles.isEmpty() ? EnumSet.noneOf(UserRole.class) : EnumSet.copyOf(roles));
+    }
+
+    public Set<UserRole> getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(UserRole role) {
+        return roles.contains(role);
+    }
+
+    // Same semantics as the claim: the name has to match exactly, unknown names are no role
+    public boolean hasRole(String role) {
+        UserRole userRole = ROLES_BY_NAME.get(role);
+        return userRole != null && roles.contains(userRole);
+    }
+
+    static UserRole roleOf(String name) {
+        return ROLES_BY_NAME.get(name);
+    }
+}
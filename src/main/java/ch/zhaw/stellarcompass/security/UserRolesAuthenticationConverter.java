@@ -0,0 +1,45 @@
+package ch.zhaw.stellarcompass.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+
+// Reads the roles from the Auth0 Action claim ("user_roles") once per request.
+// Besides the EnumSet the roles are also added as ROLE_ authorities, next to the usual SCOPE_ authorities.
+public class UserRolesAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String ROLES_CLAIM = "user_roles";
+
+    private final JwtGrantedAuthoritiesConverter scopesConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        List<String> claim = jwt.getClaimAsStringList(ROLES_CLAIM);
+        if (claim != null) {
+            for (String name : claim) {
+                UserRole role = UserRolesAuthentication.roleOf(name);
+                if (role != null) {
+                    roles.add(role);
+                }
+            }
+        }
+
+        Collection<GrantedAuthority> authorities = new ArrayList<>(scopesConverter.convert(jwt));
+        for (UserRole role : roles) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+        return new UserRolesAuthentication(jwt, authorities, roles);
+    }
+}
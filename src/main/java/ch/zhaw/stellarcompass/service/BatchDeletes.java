@@ -0,0 +1,27 @@
+package ch.zhaw.stellarcompass.service;
+
+import java.util.List;
+
+import ch.zhaw.stellarcompass.exception.BadRequestException;
+
+/**
+ * Bounds of the batch delete endpoints (DELETE /api/lesson?ids=..., DELETE /api/user?ids=...).
+ * Both go through checkIds, so they reject the same inputs with the same 400.
+ */
+public final class BatchDeletes {
+
+    // Upper bound for one batch delete, one $in query per request
+    public static final int MAX_IDS = 1000;
+
+    private BatchDeletes() {
+    }
+
+    public static void checkIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids per request");
+        }
+    }
+}
@@ -1,27 +1,101 @@
 package ch.zhaw.stellarcompass.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
+import ch.zhaw.stellarcompass.config.CacheConfig;
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
+import ch.zhaw.stellarcompass.dto.BulkResultDTO;
+import ch.zhaw.stellarcompass.dto.CursorPage;
 import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.dto.LessonSummaryDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
+import ch.zhaw.stellarcompass.exception.BadRequestException;
 import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
 import ch.zhaw.stellarcompass.repository.LessonRepository;
 import ch.zhaw.stellarcompass.repository.SubjectRepository;
+import ch.zhaw.stellarcompass.search.LessonIndex;
 
 @Service
 @Transactional // Ensure that DB operations are transactional and consistent
 public class LessonService {
 
+    // Page sizes for the cursor based listings, so a single request never loads the whole collection
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    // Upper bound for one bulk request, larger imports are split by the client
+    public static final int MAX_BULK_SIZE = 1000;
+
     @Autowired
     private LessonRepository lessonRepository;
 
     @Autowired
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    // Every write below is also applied to the in-process search index, unless it is disabled
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    // Without the index (no LessonIndexLoader) the suggestions come from the MongoDB text search
+    // and writes skip the index, nothing would ever read it
+    @Value("${stellarcompass.lesson-index.enabled:true}")
+    private boolean lessonIndexEnabled;
+
     // CREATE
     public Lesson createLesson(LessonCreateDTO dto) {
         if (!subjectRepository.existsById(dto.getSubjectId())) {
@@ -32,58 +106,330 @@ public class LessonService {
         lesson.setVideoUrl(dto.getVideoUrl());
         lesson.setContentType(dto.getContentType());
         
-        return lessonRepository.save(lesson);
+        Lesson saved = lessonRepository.save(lesson);
+        indexLesson(saved);
+        return saved;
+    }
+
+    // BULK CREATE
+    // One $in query checks all referenced subjects, one unordered bulk insert writes all valid lessons.
+    // Invalid items and items of unknown subjects are reported per item instead of failing the request.
+    public BulkResultDTO createLessons(List<LessonCreateDTO> dtos) {
+        if (dtos.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " lessons per request");
+        }
+        List<BulkItemResultDTO> results = new ArrayList<>(dtos.size());
+
+        // 1. Bean validation (the same constraints as @Valid on the single create)
+        Map<Integer, LessonCreateDTO> valid = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            LessonCreateDTO dto = dtos.get(i);
+            if (dto == null) {
+                results.add(BulkItemResultDTO.failed(i, BulkItemResultDTO.Status.INVALID, "Lesson is required"));
+                continue;
+            }
+            Set<ConstraintViolation<LessonCreateDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results.add(BulkItemResultDTO.failed(i, BulkItemResultDTO.Status.INVALID, message));
+            } else {
+                valid.put(i, dto);
+            }
+        }
+
+        // 2. Which subjects exist, one round trip for all of them
+        Set<String> subjectIds = valid.values().stream().map(LessonCreateDTO::getSubjectId).collect(Collectors.toSet());
+        Set<String> existingSubjects = subjectIds.isEmpty() ? Set.of()
+                : subjectRepository.findIdsByIdIn(subjectIds).stream().map(Subject::getId).collect(Collectors.toSet());
+
+        // 3. Ids are assigned up front, so every item can report its id without reading the lessons back
+        List<Integer> indexes = new ArrayList<>();
+        List<Lesson> lessons = new ArrayList<>();
+        valid.forEach((index, dto) -> {
+            if (!existingSubjects.contains(dto.getSubjectId())) {
+                results.add(BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.NOT_FOUND,
+                        "Subject with ID " + dto.getSubjectId() + " not found"));
+                return;
+            }
+            Lesson lesson = new Lesson(dto.getTitle(), dto.getContent(), dto.getSubjectId());
+            lesson.setId(new ObjectId().toHexString());
+            lesson.setVideoUrl(dto.getVideoUrl());
+            lesson.setContentType(dto.getContentType());
+            lesson.setVersion(0L); // Bulk inserts do not initialize @Version like save() does
+            indexes.add(index);
+            lessons.add(lesson);
+        });
+        if (lessons.isEmpty()) {
+            return new BulkResultDTO(results);
+        }
+
+        // 4. Unordered: the server may write in parallel and a failing document does not stop the others
+        Map<Integer, String> writeErrors = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Lesson.class).insert(lessons).execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> writeErrors.put(error.getIndex(), error.getMessage()));
+        }
+        for (int i = 0; i < lessons.size(); i++) {
+            String error = writeErrors.get(i);
+            if (error == null) {
+                indexLesson(lessons.get(i));
+            }
+            results.add(error == null
+                    ? BulkItemResultDTO.created(indexes.get(i), lessons.get(i).getId())
+                    : BulkItemResultDTO.failed(indexes.get(i), BulkItemResultDTO.Status.FAILED, error));
+        }
+        return new BulkResultDTO(results);
     }
 
     // READ
-    public List<Lesson> getAllLessons() {
-        return lessonRepository.findAll();
+    // Keyset pagination on _id: "next" is the token of the previous page (null for the first page)
+    public CursorPage<Lesson> getAllLessons(String next, int limit) {
+        int pageSize = clampPageSize(limit);
+        // Fetch one more than requested to know if there is a following page
+        List<Lesson> lessons = next == null
+                ? lessonRepository.findAllByOrderByIdAsc(Limit.of(pageSize + 1))
+                : lessonRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(next), Limit.of(pageSize + 1));
+        return toPage(lessons, pageSize);
     }
 
+    // Cached: when a class starts a lesson, all students load the same one within seconds
+    @Cacheable(cacheNames = CacheConfig.LESSON_BY_ID, key = "#id")
     public Lesson getLessonById(String id) {
         return lessonRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Lesson with ID " + id + " not found"));
     }
 
-    public List<Lesson> getLessonsBySubject(String subjectId) {
-        return lessonRepository.findBySubjectId(subjectId);
+    public CursorPage<Lesson> getLessonsBySubject(String subjectId, String next, int limit) {
+        int pageSize = clampPageSize(limit);
+        List<Lesson> lessons = next == null
+                ? lessonRepository.findBySubjectIdOrderByIdAsc(subjectId, Limit.of(pageSize + 1))
+                : lessonRepository.findBySubjectIdAndIdGreaterThanOrderByIdAsc(
+                        subjectId, CursorPage.decodeCursor(next), Limit.of(pageSize + 1));
+        return toPage(lessons, pageSize);
     }
 
-    // UPDATE
-    public Lesson updateLesson(String id, LessonCreateDTO dto) {
-        // Validate if Subject exists when updating SubjectId
-        if (dto.getSubjectId() != null && !subjectRepository.existsById(dto.getSubjectId())) {
-            throw new NoSuchElementException("Subject with ID " + dto.getSubjectId() + " not found");
+    // Only id, title, contentType and the video flag, for list pages
+    public CursorPage<LessonSummaryDTO> getLessonSummariesBySubject(String subjectId, String next, int limit) {
+        int pageSize = clampPageSize(limit);
+        List<Lesson> lessons = next == null
+                ? lessonRepository.findSummariesBySubjectId(subjectId, Limit.of(pageSize + 1))
+                : lessonRepository.findSummariesBySubjectIdAfter(
+                        subjectId, CursorPage.decodeCursor(next), Limit.of(pageSize + 1));
+        CursorPage<Lesson> page = toPage(lessons, pageSize);
+        return new CursorPage<>(page.getItems().stream().map(LessonSummaryDTO::from).toList(), page.getNext());
+    }
+
+    // SEARCH
+    // Full-text search over title and content with the weighted text index (see Lesson), optionally within a subject.
+    // $text can only run on the text index, so the lesson bodies are never scanned. The hits are ranked by
+    // textScore; pagination is a keyset over (score desc, _id asc), so a page continues exactly behind the last hit.
+    public CursorPage<LessonSearchHitDTO> searchLessons(String query, String subjectId, String next, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
         }
+        int pageSize = clampPageSize(limit);
+        CursorPage.ScoreCursor cursor = next == null ? null : CursorPage.decodeScoreCursor(next);
+        List<Document> hits = mongoTemplate.aggregate(searchAggregation(query, subjectId, cursor, pageSize + 1),
+                mongoTemplate.getCollectionName(Lesson.class), Document.class).getMappedResults();
 
-        return lessonRepository.findById(id).map(lesson -> {
-            // Null-Safety: Only update fields that are provided in the DTO
-            if (dto.getTitle() != null && !dto.getTitle().isBlank()) {
-                lesson.setTitle(dto.getTitle());
-            }
-            if (dto.getContent() != null && !dto.getContent().isBlank()) {
-                lesson.setContent(dto.getContent());
+        List<LessonSearchHitDTO> items = hits.stream().limit(pageSize).map(LessonService::toSearchHit).toList();
+        String nextToken = hits.size() > pageSize
+                ? CursorPage.encodeCursor(items.get(pageSize - 1).getScore(), items.get(pageSize - 1).getId())
+                : null;
+        return new CursorPage<>(items, nextToken);
+    }
+
+    // $match with $text has to be the first stage. Only the fields of a hit are projected, the content stays in MongoDB.
+    // The score cannot be filtered in a find, hence an aggregation: the cursor condition runs on the projected score.
+    static Aggregation searchAggregation(String query, String subjectId, CursorPage.ScoreCursor cursor, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(query)));
+        if (subjectId != null && !subjectId.isBlank()) {
+            stages.add(Aggregation.match(Criteria.where("subjectId").is(subjectId)));
+        }
+        stages.add(context -> new Document("$project", new Document("title", 1)
+                .append("subjectId", 1)
+                .append("contentType", 1)
+                .append("videoUrl", 1)
+                .append("score", new Document("$meta", "textScore"))));
+        if (cursor != null) {
+            // Lessons created through the repositories have ObjectIds, the comparison has to use the same type
+            Object lastId = ObjectId.isValid(cursor.lastId()) ? new ObjectId(cursor.lastId()) : cursor.lastId();
+            stages.add(Aggregation.match(new Criteria().orOperator(
+                    Criteria.where("score").lt(cursor.score()),
+                    new Criteria().andOperator(Criteria.where("score").is(cursor.score()), Criteria.where("_id").gt(lastId)))));
+        }
+        stages.add(Aggregation.sort(Sort.by(Sort.Order.desc("score"), Sort.Order.asc("_id"))));
+        stages.add(Aggregation.limit(limit));
+        return Aggregation.newAggregation(stages);
+    }
+
+    // Search-as-you-type from the in-process index (see LessonIndex): no MongoDB round trip, the best hits only.
+    // The last word matches as a prefix while it is typed.
+    // While the index is loaded on startup it would only return part of the hits -> 503, the client retries.
+    // With the index disabled the first page of the text search is returned (complete words only, no prefixes).
+    public List<LessonSearchHitDTO> suggestLessons(String query, String subjectId, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (!lessonIndexEnabled) {
+            return searchLessons(query, subjectId, null, limit).getItems();
+        }
+        if (!lessonIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Lesson index is still loading");
+        }
+        return lessonIndex.search(query, subjectId, limit);
+    }
+
+    private static LessonSearchHitDTO toSearchHit(Document hit) {
+        String videoUrl = hit.getString("videoUrl");
+        return new LessonSearchHitDTO(String.valueOf(hit.get("_id")), hit.getString("title"), hit.getString("subjectId"),
+                hit.getString("contentType"), videoUrl != null && !videoUrl.isBlank(),
+                hit.get("score", Number.class).doubleValue());
+    }
+
+    // EXPORT
+    // Writes every lesson as one JSON line (NDJSON) straight from the Mongo cursor into the output,
+    // so memory stays flat regardless of the collection size. If the client disconnects, the write
+    // fails with an IOException and try-with-resources closes the cursor.
+    public void exportLessons(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Lesson.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        try (Stream<Lesson> lessons = lessonRepository.streamAllBy();
+             SequenceWriter lines = writer.writeValues(out)) {
+            Iterator<Lesson> iterator = lessons.iterator();
+            if (!iterator.hasNext()) {
+                return;
             }
-            if (dto.getVideoUrl() != null) { // VideoUrl can be empty, but do not overwrite with null if not intended
-                lesson.setVideoUrl(dto.getVideoUrl());
+            while (iterator.hasNext()) {
+                lines.write(iterator.next());
             }
-            if (dto.getContentType() != null) {
-                lesson.setContentType(dto.getContentType());
+            // NDJSON: every line ends with a newline, including the last one
+            lines.flush();
+            out.write('\n');
+        }
+    }
+
+    // UPDATE
+    // Only the provided fields are written ($set), the lesson is changed and read back in one findAndModify.
+    // The subject is only checked if the update really moves the lesson: the first attempt is restricted
+    // to lessons that already belong to the given subject (the usual case when a client sends the full lesson).
+    @CachePut(cacheNames = CacheConfig.LESSON_BY_ID, key = "#id", condition = "#id != null")
+    public Lesson updateLesson(String id, LessonUpdateDTO dto) {
+        return updateLesson(id, dto, null);
+    }
+
+    // Conditional update (If-Match): the expected version is part of the filter, so the check and the write
+    // are one atomic findAndModify. A lesson that was changed in the meantime fails with an
+    // OptimisticLockingFailureException (412) instead of silently overwriting the other edit.
+    @CachePut(cacheNames = CacheConfig.LESSON_BY_ID, key = "#id", condition = "#id != null")
+    public Lesson updateLesson(String id, LessonUpdateDTO dto, Long expectedVersion) {
+        Update update = new Update();
+        // Null-Safety: Only update fields that are provided in the DTO
+        if (dto.getTitle() != null && !dto.getTitle().isBlank()) {
+            update.set("title", dto.getTitle());
+        }
+        if (dto.getContent() != null && !dto.getContent().isBlank()) {
+            update.set("content", dto.getContent());
+        }
+        if (dto.getVideoUrl() != null) { // VideoUrl can be empty, but do not overwrite with null if not intended
+            update.set("videoUrl", dto.getVideoUrl());
+        }
+        if (dto.getContentType() != null) {
+            update.set("contentType", dto.getContentType());
+        }
+        if (dto.getSubjectId() != null) {
+            update.set("subjectId", dto.getSubjectId());
+        }
+
+        if (!update.getUpdateObject().isEmpty()) {
+            update.inc("version", 1);
+        }
+
+        Criteria lesson = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            lesson = new Criteria().andOperator(lesson, Criteria.where("version").is(expectedVersion));
+        }
+        Lesson updated = null;
+        if (dto.getSubjectId() != null) {
+            updated = findAndModify(new Criteria().andOperator(lesson, Criteria.where("subjectId").is(dto.getSubjectId())), update);
+            // Validate if Subject exists when updating SubjectId
+            if (updated == null && !subjectRepository.existsById(dto.getSubjectId())) {
+                throw new NoSuchElementException("Subject with ID " + dto.getSubjectId() + " not found");
             }
-            if (dto.getSubjectId() != null) {
-                lesson.setSubjectId(dto.getSubjectId());
+        }
+        if (updated == null) {
+            updated = update.getUpdateObject().isEmpty()
+                    ? mongoTemplate.findOne(Query.query(lesson), Lesson.class)
+                    : findAndModify(lesson, update);
+        }
+        if (updated == null) {
+            // Only a failed write needs the second look: was it the version or does the lesson not exist?
+            if (expectedVersion != null && mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), Lesson.class)) {
+                throw new OptimisticLockingFailureException("Lesson with ID " + id + " was changed in the meantime");
             }
-            return lessonRepository.save(lesson);
-        }).orElseThrow(() -> new NoSuchElementException("Lesson with ID " + id + " not found"));
+            throw new NoSuchElementException("Lesson with ID " + id + " not found");
+        }
+        indexLesson(updated);
+        return updated;
+    }
+
+    private Lesson findAndModify(Criteria criteria, Update update) {
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Lesson.class);
     }
 
     // DELETE
-    // Delete optimised (save a DB call if not necessary - if we want exception we use findById first)
+    // One deleteOne instead of existsById + deleteById: deletedCount tells whether the lesson existed
+    @CacheEvict(cacheNames = CacheConfig.LESSON_BY_ID, key = "#id", condition = "#id != null")
     public void deleteLesson(String id) {
-       // Direct attempt or check - here stay with the check for the explicit 404 message
-       if (!lessonRepository.existsById(id)) {
-           throw new NoSuchElementException("Lesson with ID " + id + " not found");
-       }
-       lessonRepository.deleteById(id);
+        if (id == null || mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), Lesson.class)
+                .getDeletedCount() == 0) {
+            throw new NoSuchElementException("Lesson with ID " + id + " not found");
+        }
+        removeFromIndex(id);
+    }
+
+    // Delete many lessons with one $in delete, unknown ids are skipped. Returns the number of deleted lessons.
+    // The whole lesson cache is evicted, a batch delete is rare compared to reads
+    @CacheEvict(cacheNames = CacheConfig.LESSON_BY_ID, allEntries = true)
+    public long deleteLessons(List<String> ids) {
+        BatchDeletes.checkIds(ids);
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Lesson.class).getDeletedCount();
+        ids.forEach(this::removeFromIndex);
+        return deleted;
+    }
+
+    private void indexLesson(Lesson lesson) {
+        if (lessonIndexEnabled) {
+            lessonIndex.index(lesson);
+        }
+    }
+
+    private void removeFromIndex(String id) {
+        if (lessonIndexEnabled) {
+            lessonIndex.remove(id);
+        }
+    }
+
+    private int clampPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private CursorPage<Lesson> toPage(List<Lesson> lessons, int pageSize) {
+        if (lessons.size() <= pageSize) {
+            return new CursorPage<>(lessons, null);
+        }
+        List<Lesson> page = lessons.subList(0, pageSize);
+        return new CursorPage<>(page, CursorPage.encodeCursor(page.get(pageSize - 1).getId()));
     }
 }
\ No newline at end of file
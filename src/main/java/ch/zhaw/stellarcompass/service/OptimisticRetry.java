@@ -0,0 +1,40 @@
+package ch.zhaw.stellarcompass.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Retry for internal read-modify-write operations on versioned documents (@Version on Lesson, Subject, User).
+ * A save() of a document that was changed in the meantime fails with an OptimisticLockingFailureException;
+ * the whole operation (including the read) is then simply run again on the current state.
+ * Only for callers without an If-Match from a client: a stale If-Match has to fail fast with 412, not be retried.
+ */
+public final class OptimisticRetry {
+
+    public static final int DEFAULT_ATTEMPTS = 3;
+
+    private OptimisticRetry() {
+    }
+
+    public static <T> T retry(Supplier<T> operation) {
+        return retry(DEFAULT_ATTEMPTS, operation);
+    }
+
+    // The operation has to read the document itself, a retry with the stale instance would fail again
+    public static <T> T retry(int attempts, Supplier<T> operation) {
+        if (attempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                // Another writer won, no back-off: the next attempt reads its result
+            }
+        }
+    }
+}
@@ -1,40 +1,117 @@
 package ch.zhaw.stellarcompass.service;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import ch.zhaw.stellarcompass.config.CacheConfig;
+import ch.zhaw.stellarcompass.config.MongoTransactions;
 import ch.zhaw.stellarcompass.dto.SubjectCreateDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
 import ch.zhaw.stellarcompass.model.Subject;
 import ch.zhaw.stellarcompass.repository.SubjectRepository;
+import ch.zhaw.stellarcompass.search.LessonIndex;
 
+// Subjects change rarely, so reads are served from the cache (see CacheConfig).
+// Every write evicts the catalog and updates/evicts the single subject entry.
 @Service
 public class SubjectService {
 
     @Autowired
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoTransactions mongoTransactions;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    // Same switch as in LessonService: a disabled index is never written to
+    @Value("${stellarcompass.lesson-index.enabled:true}")
+    private boolean lessonIndexEnabled;
+
+    @Caching(
+        evict = @CacheEvict(cacheNames = CacheConfig.SUBJECTS, allEntries = true),
+        put = @CachePut(cacheNames = CacheConfig.SUBJECT_BY_ID, key = "#result.id", unless = "#result?.id == null")
+    )
     public Subject createSubject(SubjectCreateDTO subjectDTO) {
         Subject subject = new Subject(subjectDTO.getTitle(), subjectDTO.getDescription());
         return subjectRepository.save(subject);
     }
 
+    @Cacheable(CacheConfig.SUBJECTS)
     public List<Subject> getAllSubjects() {
         return subjectRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.SUBJECT_BY_ID, key = "#id")
+    public Subject getSubjectById(String id) {
+        return subjectRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Subject with ID " + id + " not found"));
+    }
+
     // Update
+    // Without If-Match the last write wins: a concurrent edit only makes the versioned save() fail, so it is retried
+    @Caching(
+        evict = @CacheEvict(cacheNames = CacheConfig.SUBJECTS, allEntries = true),
+        put = @CachePut(cacheNames = CacheConfig.SUBJECT_BY_ID, key = "#id", unless = "#result == null")
+    )
     public Subject updateSubject(String id, SubjectCreateDTO dto) {
+        return OptimisticRetry.retry(() -> applyUpdate(id, dto, null));
+    }
+
+    // Conditional update (If-Match): a subject that is not in the expected version fails fast with 412
+    @Caching(
+        evict = @CacheEvict(cacheNames = CacheConfig.SUBJECTS, allEntries = true),
+        put = @CachePut(cacheNames = CacheConfig.SUBJECT_BY_ID, key = "#id", unless = "#result == null")
+    )
+    public Subject updateSubject(String id, SubjectCreateDTO dto, Long expectedVersion) {
+        return applyUpdate(id, dto, expectedVersion);
+    }
+
+    // save() only writes if the stored version is still the one that was read (@Version)
+    private Subject applyUpdate(String id, SubjectCreateDTO dto, Long expectedVersion) {
         return subjectRepository.findById(id).map(subject -> {
+            if (expectedVersion != null && !expectedVersion.equals(subject.getVersion())) {
+                throw new OptimisticLockingFailureException("Subject with ID " + id + " was changed in the meantime");
+            }
             subject.setTitle(dto.getTitle());
             subject.setDescription(dto.getDescription());
             return subjectRepository.save(subject);
         }).orElseThrow(() -> new RuntimeException("The Subject you are looking for, is not found"));
     }
 
-    // Delete
+    // Delete the subject and all its lessons (one deleteMany) in one transaction, so no lesson is left orphaned.
+    // The deleted lessons are not known by id, so the whole lesson cache is evicted (subjects are rarely deleted).
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.SUBJECTS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.SUBJECT_BY_ID, key = "#id", condition = "#id != null"),
+        @CacheEvict(cacheNames = CacheConfig.LESSON_BY_ID, allEntries = true, condition = "#id != null")
+    })
     public void deleteSubject(String id) {
-        subjectRepository.deleteById(id);
+        mongoTransactions.execute(() -> {
+            // { subjectId: null } would also match lessons without a subject
+            if (id != null) {
+                mongoTemplate.remove(Query.query(Criteria.where("subjectId").is(id)), Lesson.class);
+            }
+            subjectRepository.deleteById(id);
+        });
+        if (id != null && lessonIndexEnabled) {
+            lessonIndex.removeSubjects(List.of(id));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,73 @@
 package ch.zhaw.stellarcompass.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.bulk.BulkWriteError;
+
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
 import ch.zhaw.stellarcompass.dto.UserCreateDTO;
+import ch.zhaw.stellarcompass.dto.UserImportResultDTO;
 import ch.zhaw.stellarcompass.model.User;
 import ch.zhaw.stellarcompass.repository.UserRepository;
+import ch.zhaw.stellarcompass.security.UserRolesAuthentication;
 
 @Service
 public class UserService {
 
+    // Users per unordered bulk insert during an import
+    public static final int IMPORT_BATCH_SIZE = 500;
+
+    // Mongo error code of a unique index violation (here: User.email)
+    private static final int DUPLICATE_KEY = 11000;
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Check if the user is logged in via Auth0 and has a defined Role.
-    // The Role commes from Auth0 Action ("user_roles")
+    // The Role commes from Auth0 Action ("user_roles"), already parsed by UserRolesAuthenticationConverter
     public boolean userHasRole(String role){
 
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if(authentication instanceof UserRolesAuthentication userRoles){
+            return userRoles.hasRole(role);
+        }
+
+        // Fallback for authentications that were not created by the converter
+        Object principal = authentication.getPrincipal();
 
         if(principal instanceof Jwt jwt){
             List<String>  userRoles = jwt.getClaimAsStringList("user_roles");
@@ -50,6 +95,100 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // IMPORT
+    // Reads CSV (with header row) or JSON (array or NDJSON) record by record and inserts in batches of
+    // IMPORT_BATCH_SIZE, so only one batch is held in memory. Invalid records and duplicate emails are
+    // reported per record, the other records are imported. Malformed input stops the import at that record.
+    public UserImportResultDTO importUsers(InputStream in, MediaType contentType) throws IOException {
+        UserImportResultDTO result = new UserImportResultDTO();
+        List<User> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        try (MappingIterator<Map<String, Object>> records = openRecords(in, contentType)) {
+            for (int index = 0; ; index++) {
+                Map<String, Object> record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record = records.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.addFailure(BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.INVALID,
+                            "Malformed input, import stopped: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                User user = toUser(record, index, result);
+                if (user != null) {
+                    batch.add(user);
+                    batchIndexes.add(index);
+                }
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    insertBatch(batch, batchIndexes, result);
+                }
+            }
+        }
+        insertBatch(batch, batchIndexes, result);
+        return result;
+    }
+
+    private MappingIterator<Map<String, Object>> openRecords(InputStream in, MediaType contentType) throws IOException {
+        if (contentType.isCompatibleWith(TEXT_CSV)) {
+            return CSV_MAPPER.readerFor(new TypeReference<Map<String, Object>>() {})
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(in);
+        }
+        // A top-level array is read element by element, just like a sequence of NDJSON lines
+        return objectMapper.readerFor(new TypeReference<Map<String, Object>>() {}).readValues(in);
+    }
+
+    // Returns null (and records the failure) for invalid records
+    private User toUser(Map<String, Object> record, int index, UserImportResultDTO result) {
+        // Empty CSV cells are missing values
+        record.values().removeIf(value -> value == null || value.toString().isBlank());
+        UserCreateDTO dto;
+        try {
+            dto = objectMapper.convertValue(record, UserCreateDTO.class);
+        } catch (IllegalArgumentException e) {
+            result.addFailure(BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.INVALID,
+                    "Invalid value: " + e.getMessage().split("\n")[0]));
+            return null;
+        }
+        if (dto.getEmail() == null || dto.getName() == null || dto.getRole() == null) {
+            result.addFailure(BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.INVALID,
+                    "email, name and role are required"));
+            return null;
+        }
+        User user = new User(dto.getEmail(), dto.getName(), dto.getRole());
+        user.setAuth0Id(dto.getAuth0Id());
+        user.setMentorId(dto.getMentorId());
+        user.setVersion(0L); // Bulk inserts do not initialize @Version like save() does
+        return user;
+    }
+
+    // Unordered: a duplicate email does not stop the rest of the batch
+    private void insertBatch(List<User> batch, List<Integer> batchIndexes, UserImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class).insert(batch).execute();
+            result.addCreated(batch.size());
+        } catch (BulkOperationException e) {
+            // Every document without a write error was inserted
+            result.addCreated(batch.size() - e.getErrors().size());
+            for (BulkWriteError error : e.getErrors()) {
+                int index = batchIndexes.get(error.getIndex());
+                result.addFailure(error.getCode() == DUPLICATE_KEY
+                        ? BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.DUPLICATE,
+                                "User with email " + batch.get(error.getIndex()).getEmail() + " already exists")
+                        : BulkItemResultDTO.failed(index, BulkItemResultDTO.Status.FAILED, error.getMessage()));
+            }
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -61,8 +200,17 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
     // UPDATE
+    // Without If-Match the last write wins: a concurrent edit only makes the versioned save() fail, so it is retried
     public User updateUser(String id, UserCreateDTO userDTO) {
+        return OptimisticRetry.retry(() -> updateUser(id, userDTO, null));
+    }
+
+    // Conditional update (If-Match): a user that is not in the expected version fails fast with 412
+    public User updateUser(String id, UserCreateDTO userDTO, Long expectedVersion) {
         return userRepository.findById(id).map(user -> {
+            if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                throw new OptimisticLockingFailureException("User mit ID " + id + " wurde inzwischen geändert");
+            }
             user.setEmail(userDTO.getEmail());
             user.setName(userDTO.getName());
             user.setRole(userDTO.getRole());
@@ -72,11 +220,17 @@ public class UserService {
     }
 
     // DELETE
+    // One deleteOne instead of existsById + deleteById: deletedCount tells whether the user existed
     public void deleteUser(String id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-        } else {
+        if (id == null || mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), User.class)
+                .getDeletedCount() == 0) {
             throw new java.util.NoSuchElementException("User mit ID " + id + " nicht gefunden");
         }
     }
+
+    // Delete many users with one $in delete, unknown ids are skipped. Returns the number of deleted users.
+    public long deleteUsers(List<String> ids) {
+        BatchDeletes.checkIds(ids);
+        return mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), User.class).getDeletedCount();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.repository.LessonRepository;
+
+class CacheConfigTest {
+
+    private static final long MAX_BYTES = 100_000;
+
+    private CacheManager cacheManager;
+    private LessonRepository lessonRepository;
+
+    @BeforeEach
+    void setUp() {
+        lessonRepository = mock(LessonRepository.class);
+        cacheManager = new CacheConfig().cacheManager(lessonRepository, MAX_BYTES);
+    }
+
+    @Test
+    void testEstimateSize_GrowsWithContent() {
+        // Arrange
+        Lesson small = new Lesson("Title", "Short", "sub-1");
+        Lesson large = new Lesson("Title", "A".repeat(10_000), "sub-1");
+
+        // Act & Assert - 2 bytes per char
+        assertTrue(CacheConfig.estimateSize(large) - CacheConfig.estimateSize(small) >= 2 * (10_000 - 5));
+    }
+
+    @Test
+    void testLessonCache_IsBoundedByWeight() {
+        // Arrange - every lesson weighs ~20 KB, the cache holds 100 KB
+        CaffeineCache lessons = (CaffeineCache) cacheManager.getCache(CacheConfig.LESSON_BY_ID);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            Lesson lesson = new Lesson("Lesson " + i, "A".repeat(10_000), "sub-1");
+            lesson.setId("lesson-" + i);
+            lessons.put(lesson.getId(), lesson);
+        }
+        lessons.getNativeCache().cleanUp();
+
+        // Assert - only a few large lessons fit, the rest was evicted
+        long totalWeight = lessons.getNativeCache().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(totalWeight <= MAX_BYTES, "Weighted size " + totalWeight + " exceeds the limit");
+        assertTrue(lessons.getNativeCache().estimatedSize() < 10);
+    }
+
+    @Test
+    void testLessonCache_MissDoesNotLoad() {
+        // Arrange
+        CaffeineCache lessons = (CaffeineCache) cacheManager.getCache(CacheConfig.LESSON_BY_ID);
+
+        // Act - @Cacheable does this lookup before it calls the service method
+        Object cached = lessons.get("lesson-1");
+
+        // Assert - the service method reads the lesson, the lookup must not read it a second time
+        assertNull(cached);
+        verifyNoInteractions(lessonRepository);
+    }
+
+    @Test
+    void testLessonCache_RefreshReloadsFromRepository() throws Exception {
+        // Arrange
+        Lesson reloaded = new Lesson("Title", "New content", "sub-1");
+        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(reloaded));
+
+        // Act & Assert
+        assertSame(reloaded, CacheConfig.lessonReloader(lessonRepository).reload("lesson-1", new Lesson()));
+        verify(lessonRepository, times(1)).findById("lesson-1");
+    }
+
+    @Test
+    void testUnknownCacheName_IsNotCreated() {
+        // Act & Assert - no dynamic (unbounded) caches
+        assertNull(cacheManager.getCache("typo"));
+    }
+}
@@ -0,0 +1,163 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+import ch.zhaw.stellarcompass.security.UserRolesAuthentication;
+
+// Real services and repositories: the timers of every layer are recorded for one request.
+// AutoConfigureObservability: tests disable the metrics exporters (Prometheus) by default.
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    // Tokens with the role names of the real Auth0 claim (TestSecurityConfig uses lowercase names)
+    @TestConfiguration
+    static class UppercaseRolesJwtConfig {
+        @Bean
+        JwtDecoder jwtDecoder() {
+            return token -> switch (token) {
+                case "admin-token" -> jwt(token, "ADMIN");
+                case "student-token" -> jwt(token, "STUDENT");
+                default -> throw new JwtException("Invalid token");
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        // The catalog has to come from MongoDB, not from the cache of an earlier test
+        cacheManager.getCache(CacheConfig.SUBJECTS).clear();
+    }
+
+    // ==================== Role Tag Tests ====================
+
+    @Test
+    void testRoleOf_HighestRoleWins() {
+        // Arrange
+        Jwt jwt = jwt("token", "STUDENT");
+
+        // Act & Assert
+        assertEquals("admin", MetricsConfig.roleOf(
+                new UserRolesAuthentication(jwt, List.of(), Set.of(UserRole.STUDENT, UserRole.ADMIN))));
+        assertEquals("student", MetricsConfig.roleOf(
+                new UserRolesAuthentication(jwt, List.of(), Set.of(UserRole.STUDENT))));
+        assertEquals("none", MetricsConfig.roleOf(new UserRolesAuthentication(jwt, List.of(), Set.of())));
+        assertEquals("none", MetricsConfig.roleOf(new JwtAuthenticationToken(jwt, List.of())));
+        assertEquals("anonymous", MetricsConfig.roleOf(null));
+    }
+
+    // ==================== Timer Tests ====================
+
+    @Test
+    void testRequest_RecordsEveryLayerWithRole() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/subject").header("Authorization", "Bearer student-token"))
+                .andExpect(status().isOk());
+
+        // Assert - controller, service, repository and MongoDB command
+        assertTrue(meterRegistry.get("http.server.requests")
+                .tag("uri", "/api/subject").tag("role", "student").timer().count() >= 1);
+        assertTrue(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("class", "SubjectService").tag("method", "getAllSubjects").tag("role", "student")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "SubjectRepository").tag("method", "findAll").tag("role", "student")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("mongodb.driver.commands")
+                .tag("collection", "subjects").tag("command", "find").tag("role", "student")
+                .timer().count() >= 1);
+    }
+
+    @Test
+    void testRequestWithoutToken_IsTaggedAnonymous() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/subject")).andExpect(status().isUnauthorized());
+
+        // Assert
+        assertTrue(meterRegistry.get("http.server.requests").tag("role", "anonymous").timer().count() >= 1);
+    }
+
+    @Test
+    void testServiceException_IsTagged() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/subject/000000000000000000000000").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isNotFound());
+
+        // Assert
+        assertTrue(meterRegistry.get(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "getSubjectById").tag("exception", "NoSuchElementException").tag("role", "admin")
+                .timer().count() >= 1);
+    }
+
+    // ==================== Prometheus Tests ====================
+
+    @Test
+    void testPrometheusEndpoint_ExposesHistogramsWithRole() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/subject").header("Authorization", "Bearer student-token"));
+
+        // Act
+        String body = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer admin-token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(body.contains("http_server_requests_seconds_bucket"), "Percentile histogram expected");
+        assertTrue(body.contains("stellarcompass_service_seconds_bucket"), "Service histogram expected");
+        assertTrue(body.contains("mongodb_driver_commands_seconds_bucket"), "Mongo histogram expected");
+        assertTrue(body.contains("role=\"student\""), "Role tag expected");
+    }
+
+    @Test
+    void testPrometheusEndpoint_RequiresAuthentication() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testPrometheusEndpoint_AsStudent_Forbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer student-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static Jwt jwt(String token, String role) {
+        return new Jwt(token, Instant.now(), Instant.now().plusSeconds(3600), Map.of("alg", "none"),
+                Map.of("sub", "auth0|" + token, "email", token + "@stellar.com", "user_roles", List.of(role)));
+    }
+}
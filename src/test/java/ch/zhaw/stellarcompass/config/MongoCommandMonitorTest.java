@@ -0,0 +1,177 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+@ExtendWith(OutputCaptureExtension.class)
+class MongoCommandMonitorTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private static final Document COLLSCAN_PLAN = Document.parse(
+            "{ queryPlanner: { winningPlan: { stage: 'COLLSCAN', filter: {} }, rejectedPlans: [] } }");
+    private static final Document IXSCAN_PLAN = Document.parse(
+            "{ queryPlanner: { winningPlan: { stage: 'FETCH', inputStage: { stage: 'IXSCAN' } },"
+                    + " rejectedPlans: [ { stage: 'COLLSCAN' } ] } }");
+
+    private final List<Document> explained = new ArrayList<>();
+
+    // The explains run on the calling thread, so they are done when the command returns
+    private MongoCommandMonitor monitor(Duration threshold, boolean explainNewShapes, Document plan) {
+        BiFunction<String, Document, Document> explainer = (database, explain) -> {
+            explained.add(explain);
+            return plan;
+        };
+        return new MongoCommandMonitor(threshold, explainNewShapes, explainer,
+                new ExecutorServiceAdapter(new SyncTaskExecutor()));
+    }
+
+    private void run(MongoCommandMonitor monitor, int requestId, String command, long elapsedMillis) {
+        BsonDocument document = BsonDocument.parse(command);
+        String commandName = document.getFirstKey();
+        monitor.commandStarted(new CommandStartedEvent(null, 1, requestId, CONNECTION, "stellarcompassdb", commandName, document));
+        monitor.commandSucceeded(new CommandSucceededEvent(null, 1, requestId, CONNECTION, "stellarcompassdb", commandName,
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(elapsedMillis)));
+    }
+
+    // ==================== Slow Command Tests ====================
+
+    @Test
+    void testSlowCommand_IsLoggedWithRedactedShape(CapturedOutput output) {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofMillis(100), false, IXSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'users', filter: { auth0Id: 'auth0|secret' }, $db: 'stellarcompassdb' }", 250);
+
+        // Assert
+        assertTrue(output.getOut().contains(
+                "Slow MongoDB command find on stellarcompassdb.users took 250 ms: find users {\"auth0Id\": \"?\"}"));
+        assertFalse(output.getOut().contains("auth0|secret"));
+    }
+
+    @Test
+    void testFastCommand_IsNotLogged(CapturedOutput output) {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofMillis(100), false, IXSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'lessons', filter: { subjectId: 'x' } }", 5);
+
+        // Assert
+        assertFalse(output.getOut().contains("Slow MongoDB command"));
+    }
+
+    @Test
+    void testSlowCommandWithoutQuery_IsLogged(CapturedOutput output) {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofMillis(100), false, IXSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ insert: 'lessons', documents: [ { title: 'A' } ] }", 300);
+
+        // Assert
+        assertTrue(output.getOut().contains("Slow MongoDB command insert on stellarcompassdb.lessons took 300 ms: (no query)"));
+    }
+
+    // ==================== Collection Scan Tests ====================
+
+    @Test
+    void testCollectionScan_IsReportedWithSuggestedIndex() {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofSeconds(1), true, COLLSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'users', filter: { auth0Id: 'auth0|1' }, limit: 2, lsid: { id: 1 }, $db: 'stellarcompassdb' }", 1);
+
+        // Assert - explained without the driver fields, reported per collection
+        assertEquals(1, explained.size());
+        Document command = explained.get(0).get("explain", Document.class);
+        assertFalse(command.containsKey("lsid"));
+        assertFalse(command.containsKey("$db"));
+        assertEquals("queryPlanner", explained.get(0).getString("verbosity"));
+
+        Map<String, List<MongoCommandMonitor.IndexAdvice>> advice = monitor.indexAdvice();
+        assertEquals(1, advice.get("users").size());
+        assertEquals("find users {\"auth0Id\": \"?\"}", advice.get("users").get(0).shape());
+        assertEquals(new Document("auth0Id", 1), advice.get("users").get(0).suggestedIndex());
+    }
+
+    @Test
+    void testSameShape_IsExplainedOnce() {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofSeconds(1), true, COLLSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'users', filter: { auth0Id: 'auth0|1' } }", 1);
+        run(monitor, 2, "{ find: 'users', filter: { auth0Id: 'auth0|2' } }", 1);
+        run(monitor, 3, "{ find: 'users', filter: { email: 'a@b.c' } }", 1);
+
+        // Assert
+        assertEquals(2, explained.size());
+        assertEquals(2, monitor.indexAdvice().get("users").size());
+    }
+
+    @Test
+    void testIndexScan_IsNotReported() {
+        // Arrange - the rejected COLLSCAN plan does not count
+        MongoCommandMonitor monitor = monitor(Duration.ofSeconds(1), true, IXSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'lessons', filter: { subjectId: 'x' }, sort: { _id: 1 } }", 1);
+
+        // Assert
+        assertEquals(1, explained.size());
+        assertTrue(monitor.indexAdvice().isEmpty());
+    }
+
+    @Test
+    void testDiagnosticModeOff_NothingIsExplained() {
+        // Arrange
+        MongoCommandMonitor monitor = monitor(Duration.ofSeconds(1), false, COLLSCAN_PLAN);
+
+        // Act
+        run(monitor, 1, "{ find: 'users', filter: { auth0Id: 'auth0|1' } }", 1);
+
+        // Assert
+        assertTrue(explained.isEmpty());
+        assertTrue(monitor.indexAdvice().isEmpty());
+    }
+
+    @Test
+    void testExplainFailure_IsIgnored() {
+        // Arrange
+        MongoCommandMonitor monitor = new MongoCommandMonitor(Duration.ofSeconds(1), true,
+                (database, explain) -> {
+                    throw new IllegalStateException("explain not supported");
+                },
+                new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> run(monitor, 1, "{ find: 'users', filter: { auth0Id: 'auth0|1' } }", 1));
+        assertTrue(monitor.indexAdvice().isEmpty());
+    }
+}
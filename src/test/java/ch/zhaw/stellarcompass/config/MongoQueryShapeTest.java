@@ -0,0 +1,107 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+class MongoQueryShapeTest {
+
+    // ==================== Redaction Tests ====================
+
+    @Test
+    void testFind_LiteralsAreRedacted() {
+        // Arrange
+        BsonDocument command = BsonDocument.parse(
+                "{ find: 'users', filter: { email: 'anna@stellar.com', role: 'STUDENT' }, limit: 1, $db: 'db' }");
+
+        // Act
+        MongoQueryShape shape = MongoQueryShape.of("find", command);
+
+        // Assert
+        assertEquals("find users {\"email\": \"?\", \"role\": \"?\"}", shape.toString());
+        assertFalse(shape.toString().contains("anna"));
+    }
+
+    @Test
+    void testFind_DifferentValues_SameShape() {
+        // Arrange - also $in lists of different length
+        BsonDocument first = BsonDocument.parse("{ find: 'lessons', filter: { subjectId: { $in: ['a', 'b'] } } }");
+        BsonDocument second = BsonDocument.parse("{ find: 'lessons', filter: { subjectId: { $in: ['c', 'd', 'e'] } } }");
+
+        // Act & Assert
+        assertEquals(MongoQueryShape.of("find", first).toString(), MongoQueryShape.of("find", second).toString());
+    }
+
+    @Test
+    void testFind_NestedLogicalOperators_KeepStructure() {
+        // Arrange
+        BsonDocument command = BsonDocument.parse(
+                "{ find: 'lessons', filter: { $or: [ { title: 'Algebra' }, { contentType: 'VIDEO' } ] } }");
+
+        // Act
+        MongoQueryShape shape = MongoQueryShape.of("find", command);
+
+        // Assert
+        assertEquals("find lessons {\"$or\": [{\"title\": \"?\"}, {\"contentType\": \"?\"}]}", shape.toString());
+    }
+
+    @Test
+    void testUpdateDeleteAggregate_ShapeOfQueryPart() {
+        // Arrange
+        BsonDocument update = BsonDocument.parse(
+                "{ update: 'users', updates: [ { q: { _id: 'x' }, u: { $set: { name: 'Anna' } } } ] }");
+        BsonDocument delete = BsonDocument.parse("{ delete: 'lessons', deletes: [ { q: { subjectId: 'x' }, limit: 0 } ] }");
+        BsonDocument aggregate = BsonDocument.parse(
+                "{ aggregate: 'lessons', pipeline: [ { $match: { subjectId: 'x' } }, { $sort: { title: 1 } } ], cursor: {} }");
+
+        // Act & Assert
+        assertEquals("update users {\"_id\": \"?\"}", MongoQueryShape.of("update", update).toString());
+        assertEquals("delete lessons {\"subjectId\": \"?\"}", MongoQueryShape.of("delete", delete).toString());
+        assertEquals("aggregate lessons {\"subjectId\": \"?\"} sort {\"title\": 1}",
+                MongoQueryShape.of("aggregate", aggregate).toString());
+    }
+
+    @Test
+    void testOtherCommands_NoShape() {
+        // Act & Assert
+        assertNull(MongoQueryShape.of("insert", BsonDocument.parse("{ insert: 'users', documents: [ {} ] }")));
+        assertNull(MongoQueryShape.of("getMore", BsonDocument.parse("{ getMore: NumberLong(1), collection: 'users' }")));
+        assertNull(MongoQueryShape.of("hello", BsonDocument.parse("{ hello: 1 }")));
+    }
+
+    // ==================== Index Suggestion Tests ====================
+
+    @Test
+    void testSuggestedIndex_EqualitySortRange() {
+        // Arrange - the keyset pagination query of LessonRepository
+        BsonDocument command = BsonDocument.parse(
+                "{ find: 'lessons', filter: { _id: { $gt: 'x' }, subjectId: 'y' }, sort: { _id: 1 } }");
+
+        // Act
+        Document index = MongoQueryShape.of("find", command).suggestedIndex();
+
+        // Assert - equality first, then sort (the range field is the sort field here)
+        assertEquals(new Document("subjectId", 1).append("_id", 1), index);
+    }
+
+    @Test
+    void testSuggestedIndex_InIsEquality_AndClausesAreFlattened() {
+        // Arrange
+        BsonDocument command = BsonDocument.parse(
+                "{ find: 'users', filter: { $and: [ { role: { $in: ['MENTOR', 'ADMIN'] } }, { name: { $regex: '^A' } } ] } }");
+
+        // Act
+        Document index = MongoQueryShape.of("find", command).suggestedIndex();
+
+        // Assert
+        assertEquals(new Document("role", 1).append("name", 1), index);
+    }
+
+    @Test
+    void testSuggestedIndex_EmptyFilter_None() {
+        // Act & Assert
+        assertNull(MongoQueryShape.of("find", BsonDocument.parse("{ find: 'subjects', filter: {} }")).suggestedIndex());
+    }
+}
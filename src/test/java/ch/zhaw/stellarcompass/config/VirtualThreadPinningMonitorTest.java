@@ -0,0 +1,60 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VirtualThreadPinningMonitorTest {
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void cleanup() {
+        monitor.stop();
+    }
+
+    @Test
+    void testPinnedVirtualThread_IsCounted() throws Exception {
+        // Arrange - sleeping inside synchronized pins the virtual thread to its carrier
+        Object lock = new Object();
+
+        // Act
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Assert - JFR streams the events with a short delay
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (monitor.pinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.pinnedCount() >= 1, "Pinned virtual thread should have been reported");
+    }
+
+    @Test
+    void testStop_StopsRecording() {
+        // Act
+        monitor.stop();
+
+        // Assert
+        assertFalse(monitor.isRunning());
+    }
+}
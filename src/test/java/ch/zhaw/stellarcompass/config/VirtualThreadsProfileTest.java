@@ -0,0 +1,39 @@
+package ch.zhaw.stellarcompass.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTest {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void testApplicationTaskExecutor_UsesVirtualThreads() throws Exception {
+        // Act
+        CompletableFuture<Boolean> virtual = applicationTaskExecutor.submitCompletable(
+                () -> Thread.currentThread().isVirtual());
+
+        // Assert
+        assertTrue(virtual.get());
+    }
+
+    @Test
+    void testPinningMonitor_IsRunning() {
+        assertTrue(pinningMonitor.isRunning());
+    }
+}
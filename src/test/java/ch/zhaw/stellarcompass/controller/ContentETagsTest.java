@@ -0,0 +1,144 @@
+package ch.zhaw.stellarcompass.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.model.UserRole;
+
+class ContentETagsTest {
+
+    private ContentETags contentETags;
+
+    @BeforeEach
+    void setUp() {
+        contentETags = new ContentETags();
+    }
+
+    @Test
+    void testForLesson_SameContent_SameETag() {
+        // Arrange - two instances with the same content (e.g. before and after a cache reload)
+        Lesson first = new Lesson("Intro", "Content", "sub-1");
+        first.setId("lesson-1");
+        Lesson second = new Lesson("Intro", "Content", "sub-1");
+        second.setId("lesson-1");
+
+        // Act & Assert - strong ETag, quoted
+        String eTag = contentETags.forLesson(first);
+        assertEquals(eTag, contentETags.forLesson(second));
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+
+    @Test
+    void testForLesson_ChangedContent_NewETag() {
+        // Arrange
+        Lesson original = new Lesson("Intro", "Content", "sub-1");
+        original.setId("lesson-1");
+        Lesson edited = new Lesson("Intro", "Content!", "sub-1");
+        edited.setId("lesson-1");
+
+        // Act & Assert
+        assertNotEquals(contentETags.forLesson(original), contentETags.forLesson(edited));
+    }
+
+    @Test
+    void testForLesson_FieldBoundaries_AreDistinguished() {
+        // Arrange - same concatenation, different fields
+        Lesson first = new Lesson("ab", "c", "sub-1");
+        Lesson second = new Lesson("a", "bc", "sub-1");
+
+        // Act & Assert
+        assertNotEquals(contentETags.forLesson(first), contentETags.forLesson(second));
+    }
+
+    @Test
+    void testForSubjects_RememberedPerInstance() {
+        // Arrange
+        Subject math = new Subject("Mathematik", "Algebra");
+        List<Subject> catalog = Arrays.asList(math);
+        String eTag = contentETags.forSubjects(catalog);
+
+        // Act - cached instances are never mutated, so the version of this instance is reused
+        math.setDescription("Geometrie");
+
+        // Assert
+        assertEquals(eTag, contentETags.forSubjects(catalog));
+        assertNotEquals(eTag, contentETags.forSubjects(Arrays.asList(new Subject("Mathematik", "Geometrie"))));
+    }
+
+    @Test
+    void testForLessons_DependsOnNextCursor() {
+        // Arrange
+        Lesson lesson = new Lesson("Intro", "Content", "sub-1");
+        List<Lesson> page = Arrays.asList(lesson);
+
+        // Act & Assert
+        assertNotEquals(contentETags.forLessons(page, null), contentETags.forLessons(page, "cursor-1"));
+    }
+
+    @Test
+    void testForLesson_Versioned_ETagIsVersion() {
+        // Arrange
+        Lesson lesson = new Lesson("Intro", "Content", "sub-1");
+        lesson.setVersion(4L);
+
+        // Act & Assert
+        assertEquals("\"v4\"", contentETags.forLesson(lesson));
+    }
+
+    @Test
+    void testForLessons_SameVersions_DependOnIds() {
+        // Arrange - two different lessons, both at version 0
+        Lesson first = new Lesson("Intro", "Content", "sub-1");
+        first.setId("lesson-1");
+        first.setVersion(0L);
+        Lesson second = new Lesson("Intro", "Content", "sub-1");
+        second.setId("lesson-2");
+        second.setVersion(0L);
+
+        // Act & Assert
+        assertNotEquals(contentETags.forLessons(List.of(first), null), contentETags.forLessons(List.of(second), null));
+    }
+
+    @Test
+    void testExpectedVersion_RoundTripsETag() {
+        // Arrange
+        User user = new User("user@stellar.com", "User", UserRole.STUDENT);
+        user.setVersion(12L);
+
+        // Act & Assert
+        assertEquals(12L, contentETags.expectedVersion(contentETags.forUser(user)));
+    }
+
+    @Test
+    void testExpectedVersion_GzipETag_SameVersion() {
+        // Act & Assert
+        assertEquals("\"v12-gzip\"", ContentETags.forGzip("\"v12\""));
+        assertEquals(12L, contentETags.expectedVersion(ContentETags.forGzip("\"v12\"")));
+        assertEquals("W/\"v12\"", ContentETags.forGzip("W/\"v12\""));
+    }
+
+    @Test
+    void testExpectedVersion_NoHeaderOrWildcard_Unconditional() {
+        // Act & Assert
+        assertNull(contentETags.expectedVersion(null));
+        assertNull(contentETags.expectedVersion("*"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "W/\"v3\"", "\"v3\", \"v4\"", "\"abc\"", "\"v\"", "v3", "\"vx\"" })
+    void testExpectedVersion_NotMatchable_FailsPrecondition(String ifMatch) {
+        // Act & Assert - weak, several or unknown ETags can never match the current version
+        assertThrows(OptimisticLockingFailureException.class, () -> contentETags.expectedVersion(ifMatch));
+    }
+}
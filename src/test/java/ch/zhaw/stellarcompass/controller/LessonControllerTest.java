@@ -2,15 +2,27 @@ package ch.zhaw.stellarcompass.controller;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,10 +31,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
 
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
+import ch.zhaw.stellarcompass.dto.BulkResultDTO;
+import ch.zhaw.stellarcompass.dto.CursorPage;
 import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.dto.LessonSummaryDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
+import ch.zhaw.stellarcompass.exception.BadRequestException;
 import ch.zhaw.stellarcompass.model.Lesson;
 import ch.zhaw.stellarcompass.security.TestSecurityConfig;
 import ch.zhaw.stellarcompass.service.LessonService;
@@ -158,12 +181,68 @@ class LessonControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // ==================== BULK CREATE Tests ====================
+
+    @Test
+    void testCreateLessons_AsMentor_ReturnsPerItemResults() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+        when(userService.userHasRole("MENTOR")).thenReturn(true);
+        when(lessonService.createLessons(any())).thenReturn(new BulkResultDTO(Arrays.asList(
+                BulkItemResultDTO.created(0, "lesson-1"),
+                BulkItemResultDTO.failed(1, BulkItemResultDTO.Status.NOT_FOUND, "Subject with ID sub-9 not found"))));
+
+        String json = "[{\"title\": \"A\", \"content\": \"a\", \"subjectId\": \"sub-1\"},"
+                + " {\"title\": \"B\", \"content\": \"b\", \"subjectId\": \"sub-9\"}]";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/lesson/bulk")
+                .header("Authorization", TestSecurityConfig.MENTOR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].id").value("lesson-1"))
+                .andExpect(jsonPath("$.items[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void testCreateLessons_AsStudent_Forbidden() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+        when(userService.userHasRole("MENTOR")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/lesson/bulk")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testCreateLessons_TooMany_BadRequest() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(lessonService.createLessons(any())).thenThrow(new BadRequestException("At most 1000 lessons per request"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/lesson/bulk")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== READ Tests ====================
 
     @Test
     void testGetAllLessons_AsStudent_Success() throws Exception {
         // Arrange
-        when(lessonService.getAllLessons()).thenReturn(Arrays.asList(introLesson, advancedLesson));
+        when(lessonService.getAllLessons(isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Arrays.asList(introLesson, advancedLesson), null));
 
         // Act & Assert
         mockMvc.perform(get("/api/lesson")
@@ -172,13 +251,68 @@ class LessonControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].title").value("Intro to Java"))
-                .andExpect(jsonPath("$[1].title").value("Advanced Java"));
+                .andExpect(jsonPath("$[1].title").value("Advanced Java"))
+                .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void testGetAllLessons_WithNextPage_SetsLinkHeader() throws Exception {
+        // Arrange - more lessons available than requested
+        when(lessonService.getAllLessons(isNull(), eq(1)))
+                .thenReturn(new CursorPage<>(Arrays.asList(introLesson), "cursor-1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson?limit=1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "cursor-1"))
+                .andExpect(header().string("Link", "<http://localhost/api/lesson?next=cursor-1&limit=1>; rel=\"next\""));
+    }
+
+    @Test
+    void testGetAllLessons_WithCursor_PassesCursorToService() throws Exception {
+        // Arrange
+        when(lessonService.getAllLessons("cursor-1", 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(advancedLesson), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson?limit=1&next=cursor-1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("lesson-2"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllLessons_InvalidCursor_Returns400() throws Exception {
+        // Arrange
+        when(lessonService.getAllLessons("%%%", 50))
+                .thenThrow(new BadRequestException("Invalid cursor: %%%"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson")
+                .param("next", "%%%")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllLessons_InternalIllegalArgument_Returns500() throws Exception {
+        // Arrange - not a client error, the message must not be reported as one
+        when(lessonService.getAllLessons(isNull(), eq(50)))
+                .thenThrow(new IllegalArgumentException("internal"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isInternalServerError());
     }
 
     @Test
     void testGetAllLessons_EmptyList() throws Exception {
         // Arrange
-        when(lessonService.getAllLessons()).thenReturn(Collections.emptyList());
+        when(lessonService.getAllLessons(isNull(), eq(50))).thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         // Act & Assert
         mockMvc.perform(get("/api/lesson")
@@ -208,6 +342,72 @@ class LessonControllerTest {
                 .andExpect(jsonPath("$.title").value("Intro to Java"));
     }
 
+    @Test
+    void testGetLessonById_SetsETag() throws Exception {
+        // Arrange
+        when(lessonService.getLessonById("lesson-1")).thenReturn(introLesson);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+    }
+
+    @Test
+    void testGetLessonById_IfNoneMatch_Returns304() throws Exception {
+        // Arrange
+        when(lessonService.getLessonById("lesson-1")).thenReturn(introLesson);
+        String eTag = mockMvc.perform(get("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert - unchanged lesson, no body
+        mockMvc.perform(get("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetLessonById_IfNoneMatchOutdated_Returns200() throws Exception {
+        // Arrange
+        when(lessonService.getLessonById("lesson-1")).thenReturn(introLesson);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("If-None-Match", "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("lesson-1"));
+    }
+
+    @Test
+    void testGetLessonById_AcceptGzip_SendsCompressedBody() throws Exception {
+        // Arrange
+        Lesson longLesson = new Lesson("Long Lesson", "x".repeat(4096), "sub-1");
+        longLesson.setId("lesson-3");
+        when(lessonService.getLessonById("lesson-3")).thenReturn(longLesson);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/lesson/lesson-3")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"title\":\"Long Lesson\""));
+        }
+    }
+
     @Test
     void testGetLessonById_NotFound() throws Exception {
         // Arrange
@@ -223,8 +423,8 @@ class LessonControllerTest {
     @Test
     void testGetLessonsBySubject_Success() throws Exception {
         // Arrange
-        when(lessonService.getLessonsBySubject("sub-1"))
-                .thenReturn(Arrays.asList(introLesson, advancedLesson));
+        when(lessonService.getLessonsBySubject(eq("sub-1"), isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Arrays.asList(introLesson, advancedLesson), null));
 
         // Act & Assert
         mockMvc.perform(get("/api/lesson/subject/sub-1")
@@ -237,8 +437,8 @@ class LessonControllerTest {
     @Test
     void testGetLessonsBySubject_EmptyList() throws Exception {
         // Arrange
-        when(lessonService.getLessonsBySubject("sub-999"))
-                .thenReturn(Collections.emptyList());
+        when(lessonService.getLessonsBySubject(eq("sub-999"), isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         // Act & Assert
         mockMvc.perform(get("/api/lesson/subject/sub-999")
@@ -248,6 +448,174 @@ class LessonControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void testGetLessonsBySubject_IfNoneMatch_Returns304() throws Exception {
+        // Arrange
+        when(lessonService.getLessonsBySubject(eq("sub-1"), isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Arrays.asList(introLesson, advancedLesson), null));
+        String eTag = mockMvc.perform(get("/api/lesson/subject/sub-1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/subject/sub-1")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetLessonsBySubject_WithNextPage_SetsCursorHeader() throws Exception {
+        // Arrange
+        when(lessonService.getLessonsBySubject("sub-1", null, 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(introLesson), "cursor-1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/subject/sub-1?limit=1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", "cursor-1"));
+    }
+
+    @Test
+    void testGetLessonSummariesBySubject_Success() throws Exception {
+        // Arrange
+        when(lessonService.getLessonSummariesBySubject(eq("sub-1"), isNull(), eq(50)))
+                .thenReturn(new CursorPage<>(Arrays.asList(
+                        new LessonSummaryDTO("lesson-1", "Intro to Java", "TEXT", false),
+                        new LessonSummaryDTO("lesson-2", "Advanced Java", "VIDEO", true)), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/subject/sub-1/summary")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value("lesson-1"))
+                .andExpect(jsonPath("$[0].hasVideo").value(false))
+                .andExpect(jsonPath("$[1].contentType").value("VIDEO"))
+                .andExpect(jsonPath("$[1].hasVideo").value(true))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void testGetLessonSummariesBySubject_WithNextPage_SetsCursorHeader() throws Exception {
+        // Arrange
+        when(lessonService.getLessonSummariesBySubject("sub-1", null, 1))
+                .thenReturn(new CursorPage<>(Arrays.asList(
+                        new LessonSummaryDTO("lesson-1", "Intro to Java", "TEXT", false)), "cursor-1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/subject/sub-1/summary?limit=1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "cursor-1"));
+    }
+
+    // ==================== SEARCH Tests ====================
+
+    @Test
+    void testSearchLessons_ReturnsRankedHitsWithCursor() throws Exception {
+        // Arrange
+        LessonSearchHitDTO hit = new LessonSearchHitDTO("lesson-1", "Orbit basics", "sub-1", "TEXT", false, 7.5);
+        when(lessonService.searchLessons("orbit", "sub-1", null, 1))
+                .thenReturn(new CursorPage<>(List.of(hit), "cursor-1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/search")
+                .param("q", "orbit")
+                .param("subjectId", "sub-1")
+                .param("limit", "1")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Orbit basics"))
+                .andExpect(jsonPath("$[0].score").value(7.5))
+                .andExpect(header().string("X-Next-Cursor", "cursor-1"));
+    }
+
+    @Test
+    void testSearchLessons_WithoutQuery_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/search")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSuggestLessons_ReturnsHitsWithoutCursor() throws Exception {
+        // Arrange
+        LessonSearchHitDTO hit = new LessonSearchHitDTO("lesson-1", "Orbit basics", "sub-1", "TEXT", false, 2.5);
+        when(lessonService.suggestLessons("orb", null, 10)).thenReturn(List.of(hit));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/suggest")
+                .param("q", "orb")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("lesson-1"))
+                .andExpect(jsonPath("$[0].score").value(2.5))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testSuggestLessons_IndexLoading_ServiceUnavailable() throws Exception {
+        // Arrange
+        when(lessonService.suggestLessons("orb", null, 10))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Lesson index is still loading"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/suggest")
+                .param("q", "orb")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testSuggestLessons_WithoutQuery_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/suggest")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== EXPORT Tests ====================
+
+    @Test
+    void testExportLessons_AsAdmin_StreamsNdjson() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":\"lesson-1\"}\n{\"id\":\"lesson-2\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(lessonService).exportLessons(any(OutputStream.class));
+
+        // Act - the body is written asynchronously
+        MvcResult result = mockMvc.perform(get("/api/lesson/export")
+                .header("Authorization", TestSecurityConfig.ADMIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":\"lesson-1\"}\n{\"id\":\"lesson-2\"}\n"));
+    }
+
+    @Test
+    void testExportLessons_AsStudent_Forbidden() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+        when(userService.userHasRole("MENTOR")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/lesson/export")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isForbidden());
+    }
+
     // ==================== UPDATE Tests ====================
 
     @Test
@@ -259,7 +627,7 @@ class LessonControllerTest {
         Lesson updatedLesson = new Lesson("Updated Title", "Updated content", "sub-1");
         updatedLesson.setId("lesson-1");
 
-        when(lessonService.updateLesson(eq("lesson-1"), any(LessonCreateDTO.class)))
+        when(lessonService.updateLesson(eq("lesson-1"), any(LessonUpdateDTO.class)))
                 .thenReturn(updatedLesson);
 
         String json = "{\"title\": \"Updated Title\", \"content\": \"Updated content\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
@@ -283,7 +651,7 @@ class LessonControllerTest {
         Lesson updatedLesson = new Lesson("Mentor Update", "New content", "sub-1");
         updatedLesson.setId("lesson-2");
 
-        when(lessonService.updateLesson(eq("lesson-2"), any(LessonCreateDTO.class)))
+        when(lessonService.updateLesson(eq("lesson-2"), any(LessonUpdateDTO.class)))
                 .thenReturn(updatedLesson);
 
         String json = "{\"title\": \"Mentor Update\", \"content\": \"New content\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
@@ -297,6 +665,39 @@ class LessonControllerTest {
                 .andExpect(jsonPath("$.title").value("Mentor Update"));
     }
 
+    @Test
+    void testUpdateLesson_OnlyTitle_PartialUpdate() throws Exception {
+        // Arrange - the body only carries the changed field
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        Lesson updatedLesson = new Lesson("Only Title", "Content", "sub-1");
+        updatedLesson.setId("lesson-1");
+        when(lessonService.updateLesson(eq("lesson-1"), argThat((LessonUpdateDTO dto) ->
+                "Only Title".equals(dto.getTitle()) && dto.getContent() == null && dto.getSubjectId() == null)))
+                .thenReturn(updatedLesson);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Only Title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Only Title"));
+    }
+
+    @Test
+    void testUpdateLesson_BlankTitle_BadRequest() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+
+        // Act & Assert - a field may be left out, but not sent blank
+        mockMvc.perform(put("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"  \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Title must not be blank"));
+    }
+
     @Test
     void testUpdateLesson_AsStudent_Forbidden() throws Exception {
         // Arrange - Student tries to update a lesson
@@ -319,7 +720,7 @@ class LessonControllerTest {
         when(userService.userHasRole("ADMIN")).thenReturn(true);
         when(userService.userHasRole("MENTOR")).thenReturn(false);
 
-        when(lessonService.updateLesson(eq("unknown"), any(LessonCreateDTO.class)))
+        when(lessonService.updateLesson(eq("unknown"), any(LessonUpdateDTO.class)))
                 .thenThrow(new NoSuchElementException("Lesson not found"));
 
         String json = "{\"title\": \"New Title\", \"content\": \"C\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
@@ -332,6 +733,66 @@ class LessonControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testUpdateLesson_IfMatch_PassesExpectedVersion() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        Lesson updatedLesson = new Lesson("Updated Title", "Updated content", "sub-1");
+        updatedLesson.setId("lesson-1");
+        updatedLesson.setVersion(3L);
+        when(lessonService.updateLesson(eq("lesson-1"), any(LessonUpdateDTO.class), eq(2L)))
+                .thenReturn(updatedLesson);
+
+        String json = "{\"title\": \"Updated Title\", \"content\": \"Updated content\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
+
+        // Act & Assert - the new ETag allows the next conditional update
+        mockMvc.perform(put("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .header("If-Match", "\"v2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void testUpdateLesson_StaleIfMatch_Returns412() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(lessonService.updateLesson(eq("lesson-1"), any(LessonUpdateDTO.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("Lesson with ID lesson-1 was changed in the meantime"));
+
+        String json = "{\"title\": \"Updated Title\", \"content\": \"Updated content\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
+
+        // Act & Assert
+        mockMvc.perform(put("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .header("If-Match", "\"v2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+
+    @Test
+    void testUpdateLesson_WeakIfMatch_Returns412WithoutUpdate() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+
+        String json = "{\"title\": \"Updated Title\", \"content\": \"Updated content\", \"subjectId\": \"sub-1\", \"contentType\": \"TEXT\"}";
+
+        // Act & Assert - If-Match uses the strong comparison, a weak ETag never matches
+        mockMvc.perform(put("/api/lesson/lesson-1")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .header("If-Match", "W/\"v2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isPreconditionFailed());
+        verify(lessonService, never()).updateLesson(any(), any());
+        verify(lessonService, never()).updateLesson(any(), any(), any());
+    }
+
     @Test
     void testUpdateLesson_Validation_Returns400() throws Exception {
         // Arrange
@@ -403,4 +864,41 @@ class LessonControllerTest {
         mockMvc.perform(delete("/api/lesson/lesson-1"))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeleteLessons_AsAdmin_ReturnsDeletedCount() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(lessonService.deleteLessons(List.of("lesson-1", "lesson-2"))).thenReturn(2L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/lesson")
+                .param("ids", "lesson-1,lesson-2")
+                .header("Authorization", TestSecurityConfig.ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    void testDeleteLessons_AsMentor_Forbidden() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/lesson")
+                .param("ids", "lesson-1")
+                .header("Authorization", TestSecurityConfig.MENTOR))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testDeleteLessons_WithoutIds_BadRequest() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/lesson")
+                .header("Authorization", TestSecurityConfig.ADMIN))
+                .andExpect(status().isBadRequest());
+    }
+}
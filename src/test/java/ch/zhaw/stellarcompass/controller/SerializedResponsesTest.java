@@ -0,0 +1,124 @@
+package ch.zhaw.stellarcompass.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+
+class SerializedResponsesTest {
+
+    private SerializedResponses serializedResponses;
+
+    @BeforeEach
+    void setUp() {
+        serializedResponses = new SerializedResponses();
+        ReflectionTestUtils.setField(serializedResponses, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testOk_SameInstance_SerializedOnce() {
+        // Arrange
+        Lesson lesson = new Lesson("Intro", "Content", "sub-1");
+
+        // Act
+        ResponseEntity<byte[]> first = serializedResponses.ok(lesson, "\"v1\"", null);
+        ResponseEntity<byte[]> second = serializedResponses.ok(lesson, "\"v1\"", null);
+
+        // Assert - the very same byte array is reused
+        assertSame(first.getBody(), second.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertEquals("\"v1\"", first.getHeaders().getETag());
+        assertTrue(new String(first.getBody()).contains("\"title\":\"Intro\""));
+    }
+
+    @Test
+    void testOk_NewInstance_SerializedAgain() {
+        // Arrange - a write replaces the cached instance
+        Lesson original = new Lesson("Intro", "Content", "sub-1");
+        Lesson updated = new Lesson("Intro (updated)", "Content", "sub-1");
+
+        // Act
+        byte[] before = serializedResponses.ok(original, "\"v1\"", null).getBody();
+        byte[] after = serializedResponses.ok(updated, "\"v2\"", null).getBody();
+
+        // Assert
+        assertTrue(new String(before).contains("\"Intro\""));
+        assertTrue(new String(after).contains("\"Intro (updated)\""));
+    }
+
+    @Test
+    void testOk_LargeBodyAndGzipAccepted_SendsCompressed() throws IOException {
+        // Arrange
+        Lesson lesson = new Lesson("Intro", "x".repeat(SerializedResponses.GZIP_MIN_BYTES * 4), "sub-1");
+        byte[] json = serializedResponses.ok(lesson, "\"v1\"", null).getBody();
+
+        // Act
+        ResponseEntity<byte[]> response = serializedResponses.ok(lesson, "\"v1\"", "gzip, deflate, br");
+
+        // Assert
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"v1-gzip\"", response.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+        assertTrue(response.getBody().length < json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testOk_SmallBody_NotCompressed() {
+        // Arrange
+        Lesson lesson = new Lesson("Intro", "Content", "sub-1");
+
+        // Act
+        ResponseEntity<byte[]> response = serializedResponses.ok(lesson, "\"v1\"", "gzip");
+
+        // Assert
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void testOk_BoundedByBytes() {
+        // Arrange - room for about two encoded lessons of 4 KB
+        SerializedResponses small = new SerializedResponses(10_000);
+        ReflectionTestUtils.setField(small, "objectMapper", new ObjectMapper());
+        List<Lesson> lessons = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // Random content, so gzip does not shrink it to nothing
+            lessons.add(new Lesson("Lesson " + i, UUID.randomUUID().toString().repeat(100), "sub-1"));
+        }
+
+        // Act
+        lessons.forEach(lesson -> small.ok(lesson, "\"v1\"", null));
+        Cache<?, ?> encoded = (Cache<?, ?>) ReflectionTestUtils.getField(small, "encoded");
+        encoded.cleanUp();
+
+        // Assert
+        assertTrue(encoded.estimatedSize() < lessons.size(), "Entries beyond the byte bound expected to be evicted");
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(SerializedResponses.acceptsGzip("gzip"));
+        assertTrue(SerializedResponses.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(SerializedResponses.acceptsGzip("gzip;q=0"));
+        assertFalse(SerializedResponses.acceptsGzip("br, deflate"));
+        assertFalse(SerializedResponses.acceptsGzip(null));
+    }
+}
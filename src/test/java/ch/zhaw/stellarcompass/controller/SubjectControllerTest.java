@@ -6,12 +6,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
 
 import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -174,6 +177,64 @@ class SubjectControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void testGetAllSubjects_IfNoneMatch_Returns304() throws Exception {
+        // Arrange
+        when(subjectService.getAllSubjects()).thenReturn(Arrays.asList(mathSubject, csSubject));
+        String eTag = mockMvc.perform(get("/api/subject")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/subject")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetAllSubjects_ChangedCatalog_Returns200() throws Exception {
+        // Arrange
+        when(subjectService.getAllSubjects()).thenReturn(Arrays.asList(mathSubject));
+        String eTag = mockMvc.perform(get("/api/subject")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andReturn().getResponse().getHeader("ETag");
+        when(subjectService.getAllSubjects()).thenReturn(Arrays.asList(mathSubject, csSubject));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/subject")
+                .header("Authorization", TestSecurityConfig.STUDENT)
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testGetSubjectById_Success() throws Exception {
+        // Arrange
+        when(subjectService.getSubjectById("math-123")).thenReturn(mathSubject);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/subject/math-123")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("math-123"))
+                .andExpect(jsonPath("$.title").value("Mathematik"));
+    }
+
+    @Test
+    void testGetSubjectById_NotFound() throws Exception {
+        // Arrange
+        when(subjectService.getSubjectById("unknown")).thenThrow(new NoSuchElementException("Not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/subject/unknown")
+                .header("Authorization", TestSecurityConfig.STUDENT))
+                .andExpect(status().isNotFound());
+    }
+
     // ==================== UPDATE Tests ====================
 
     @Test
@@ -258,6 +319,24 @@ class SubjectControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testUpdateSubject_StaleIfMatch_Returns412() throws Exception {
+        // Arrange - the stale version is reported as 412, not as the 404 of other update errors
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(subjectService.updateSubject(eq("math-123"), any(SubjectCreateDTO.class), eq(1L)))
+                .thenThrow(new OptimisticLockingFailureException("Subject with ID math-123 was changed in the meantime"));
+
+        String jsonBody = "{\"title\": \"Mathematik II\", \"description\": \"Analysis\"}";
+
+        // Act & Assert
+        mockMvc.perform(put("/api/subject/math-123")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .header("If-Match", "\"v1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonBody))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     // ==================== DELETE Tests ====================
 
     @Test
@@ -8,9 +8,11 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -28,7 +30,9 @@ import org.springframework.dao.DuplicateKeyException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
 import ch.zhaw.stellarcompass.dto.UserCreateDTO;
+import ch.zhaw.stellarcompass.dto.UserImportResultDTO;
 import ch.zhaw.stellarcompass.model.User;
 import ch.zhaw.stellarcompass.model.UserRole;
 import ch.zhaw.stellarcompass.repository.UserRepository;
@@ -226,6 +230,36 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("Updated Name"));
     }
 
+    @Test
+    void testUpdateUser_IfMatchFromGet_PassesExpectedVersion() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        studentUser.setVersion(5L);
+        when(userService.getUserById("student-id")).thenReturn(Optional.of(studentUser));
+
+        User updatedUser = new User("student@stellar.com", "Updated Name", UserRole.STUDENT);
+        updatedUser.setId("student-id");
+        updatedUser.setVersion(6L);
+        when(userService.updateUser(eq("student-id"), any(UserCreateDTO.class), eq(5L))).thenReturn(updatedUser);
+
+        String updateJson = "{\"email\": \"student@stellar.com\", \"name\": \"Updated Name\", \"role\": \"STUDENT\"}";
+
+        // Act - the ETag of the GET is sent back as If-Match
+        String eTag = mockMvc.perform(get("/api/user/student-id")
+                .header("Authorization", TestSecurityConfig.ADMIN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Assert
+        mockMvc.perform(put("/api/user/student-id")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v6\""));
+    }
+
     @Test
     void testUpdateUser_AsMentor_Success() throws Exception {
         // Arrange
@@ -357,4 +391,76 @@ class UserControllerTest {
                 .header("Authorization", TestSecurityConfig.MENTOR))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeleteUsers_AsAdmin_ReturnsDeletedCount() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(userService.deleteUsers(List.of("student-id", "mentor-id"))).thenReturn(2L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/user")
+                .param("ids", "student-id,mentor-id")
+                .header("Authorization", TestSecurityConfig.ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    void testDeleteUsers_AsMentor_Forbidden() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/user")
+                .param("ids", "student-id")
+                .header("Authorization", TestSecurityConfig.MENTOR))
+                .andExpect(status().isForbidden());
+    }
+
+    // ==================== IMPORT Tests ====================
+
+    @Test
+    void testImportUsers_AsAdmin_Success() throws Exception {
+        // Arrange
+        UserImportResultDTO result = new UserImportResultDTO();
+        result.addCreated(2);
+        result.addFailure(BulkItemResultDTO.failed(1, BulkItemResultDTO.Status.DUPLICATE, "User with email a@b.ch already exists"));
+        when(userService.userHasRole("ADMIN")).thenReturn(true);
+        when(userService.importUsers(any(), any())).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/user/import")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .contentType("text/csv")
+                .content("email,name,role\na@b.ch,A,STUDENT\na@b.ch,A,STUDENT\nc@d.ch,C,STUDENT\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].status").value("DUPLICATE"));
+    }
+
+    @Test
+    void testImportUsers_AsMentor_Forbidden() throws Exception {
+        // Arrange
+        when(userService.userHasRole("ADMIN")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/user/import")
+                .header("Authorization", TestSecurityConfig.MENTOR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testImportUsers_UnsupportedContentType() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/user/import")
+                .header("Authorization", TestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<users/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
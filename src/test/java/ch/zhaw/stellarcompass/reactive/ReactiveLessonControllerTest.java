@@ -0,0 +1,254 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+
+// Runs the reactive stack against the same MongoDB as the other tests
+@SpringBootTest(classes = ReactiveStellarcompassApplication.class)
+@ActiveProfiles(ReactiveStellarcompassApplication.PROFILE)
+@AutoConfigureWebTestClient
+@Import(ReactiveTestSecurityConfig.class)
+class ReactiveLessonControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveLessonRepository lessonRepository;
+
+    @Autowired
+    private ReactiveSubjectRepository subjectRepository;
+
+    private Subject subject;
+
+    @BeforeEach
+    void setUp() {
+        lessonRepository.deleteAll().block();
+        subjectRepository.deleteAll().block();
+
+        subject = subjectRepository.save(new Subject("Reactive Mathematik", "Algebra")).block();
+        for (int i = 1; i <= 3; i++) {
+            lessonRepository.save(new Lesson("Lesson " + i, "Content " + i, subject.getId())).block();
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        lessonRepository.deleteAll().block();
+        subjectRepository.deleteAll().block();
+    }
+
+    // ==================== READ Tests ====================
+
+    @Test
+    void testGetLessonsBySubject_Paginated() {
+        // Act & Assert - first page of two, same headers as the MVC controller
+        String next = webTestClient.get()
+                .uri("/api/lesson/subject/{subjectId}?limit=2", subject.getId())
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("Link")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].title").isEqualTo("Lesson 1")
+                .returnResult()
+                .getResponseHeaders().getFirst("X-Next-Cursor");
+
+        // Act & Assert - last page
+        webTestClient.get()
+                .uri("/api/lesson/subject/{subjectId}?limit=2&next={next}", subject.getId(), next)
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Link")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Lesson 3");
+    }
+
+    @Test
+    void testGetLessonById_NotFound() {
+        webTestClient.get()
+                .uri("/api/lesson/does-not-exist")
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Not Found");
+    }
+
+    @Test
+    void testGetAllLessons_InvalidCursor_BadRequest() {
+        webTestClient.get()
+                .uri("/api/lesson?next=%%%")
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetAllLessons_Unauthenticated() {
+        webTestClient.get()
+                .uri("/api/lesson")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testExportLessons_AsMentor_StreamsNdjson() {
+        // Act
+        List<Lesson> lessons = webTestClient.get()
+                .uri("/api/lesson/export")
+                .header("Authorization", ReactiveTestSecurityConfig.MENTOR)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Lesson.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Assert
+        assertEquals(3, lessons.size());
+    }
+
+    // ==================== WRITE Tests ====================
+
+    @Test
+    void testCreateLesson_AsAdmin_Created() {
+        String json = "{\"title\": \"New\", \"content\": \"Text\", \"subjectId\": \"" + subject.getId() + "\"}";
+
+        webTestClient.post()
+                .uri("/api/lesson")
+                .header("Authorization", ReactiveTestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists("Location")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("New");
+
+        assertEquals(4, lessonRepository.count().block());
+    }
+
+    @Test
+    void testCreateLesson_AsStudent_Forbidden() {
+        String json = "{\"title\": \"New\", \"content\": \"Text\", \"subjectId\": \"" + subject.getId() + "\"}";
+
+        webTestClient.post()
+                .uri("/api/lesson")
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void testCreateLesson_MissingTitle_BadRequest() {
+        String json = "{\"content\": \"Text\", \"subjectId\": \"" + subject.getId() + "\"}";
+
+        webTestClient.post()
+                .uri("/api/lesson")
+                .header("Authorization", ReactiveTestSecurityConfig.MENTOR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Title is required");
+    }
+
+    @Test
+    void testCreateLesson_UnknownSubject_NotFound() {
+        String json = "{\"title\": \"New\", \"content\": \"Text\", \"subjectId\": \"sub-999\"}";
+
+        webTestClient.post()
+                .uri("/api/lesson")
+                .header("Authorization", ReactiveTestSecurityConfig.ADMIN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testDeleteLesson_AsMentor_Forbidden() {
+        Lesson lesson = lessonRepository.findAll().blockFirst();
+
+        webTestClient.delete()
+                .uri("/api/lesson/{id}", lesson.getId())
+                .header("Authorization", ReactiveTestSecurityConfig.MENTOR)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void testDeleteLesson_AsAdmin_NoContent() {
+        Lesson lesson = lessonRepository.findAll().blockFirst();
+
+        webTestClient.delete()
+                .uri("/api/lesson/{id}", lesson.getId())
+                .header("Authorization", ReactiveTestSecurityConfig.ADMIN)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertFalse(lessonRepository.existsById(lesson.getId()).block());
+    }
+
+    // ==================== Subject Tests ====================
+
+    @Test
+    void testGetAllSubjects_StreamsArray() {
+        webTestClient.get()
+                .uri("/api/subject")
+                .header("Authorization", ReactiveTestSecurityConfig.STUDENT)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Reactive Mathematik");
+    }
+
+    @Test
+    void testUpdateSubject_AsMentor_Success() {
+        webTestClient.put()
+                .uri("/api/subject/{id}", subject.getId())
+                .header("Authorization", ReactiveTestSecurityConfig.MENTOR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\": \"Reactive Mathematik\", \"description\": \"Geometrie\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.description").isEqualTo("Geometrie");
+    }
+
+    @Test
+    void testDeleteSubject_AsAdmin_DeletesLessons() {
+        webTestClient.delete()
+                .uri("/api/subject/{id}", subject.getId())
+                .header("Authorization", ReactiveTestSecurityConfig.ADMIN)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertFalse(subjectRepository.existsById(subject.getId()).block());
+        assertEquals(0L, lessonRepository.count().block());
+    }
+}
@@ -0,0 +1,42 @@
+package ch.zhaw.stellarcompass.reactive;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of TestSecurityConfig, the roles match UserRole so the role checks can be tested
+@TestConfiguration
+public class ReactiveTestSecurityConfig {
+
+    // Constants for tests
+    public static final String ADMIN = "Bearer admin-token";
+    public static final String STUDENT = "Bearer student-token";
+    public static final String MENTOR = "Bearer mentor-token";
+
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder() {
+        return token -> switch (token) {
+            case "admin-token" -> Mono.just(createJwt("auth0|admin", "ADMIN"));
+            case "student-token" -> Mono.just(createJwt("auth0|student", "STUDENT"));
+            case "mentor-token" -> Mono.just(createJwt("auth0|mentor", "MENTOR"));
+            default -> Mono.error(new BadJwtException("Invalid token"));
+        };
+    }
+
+    private Jwt createJwt(String sub, String role) {
+        return new Jwt(
+                sub + "-token",
+                Instant.now(),
+                Instant.now().plusSeconds(3600),
+                Map.of("alg", "none"),
+                Map.of("sub", sub, "user_roles", List.of(role)));
+    }
+}
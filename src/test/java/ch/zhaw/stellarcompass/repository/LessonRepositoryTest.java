@@ -0,0 +1,286 @@
+package ch.zhaw.stellarcompass.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+
+@SpringBootTest
+class LessonRepositoryTest {
+
+    // Records the find commands on lessons as the driver sends them
+    static class FindCommands implements CommandListener {
+
+        private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            // The command is only valid during the event
+            if (event.getCommandName().equals("find") && "lessons".equals(event.getCommand().getString("find").getValue())) {
+                commands.add(event.getCommand().clone());
+            }
+        }
+
+        void clear() {
+            commands.clear();
+        }
+
+        BsonDocument last() {
+            assertFalse(commands.isEmpty(), "No find command on lessons was sent");
+            return commands.get(commands.size() - 1);
+        }
+    }
+
+    @TestConfiguration
+    static class FindCommandsConfig {
+        @Bean
+        FindCommands findCommands() {
+            return new FindCommands();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer findCommandsCustomizer(FindCommands findCommands) {
+            return settings -> settings.addCommandListener(findCommands);
+        }
+    }
+
+    @Autowired
+    private FindCommands findCommands;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up before each test
+        lessonRepository.deleteAll();
+
+        // Five lessons for sub-1 and two for sub-2, saved in order so that the ObjectIds ascend
+        for (int i = 1; i <= 5; i++) {
+            lessonRepository.save(new Lesson("Math " + i, "Content " + i, "sub-1"));
+        }
+        lessonRepository.save(new Lesson("History 1", "Content", "sub-2"));
+        lessonRepository.save(new Lesson("History 2", "Content", "sub-2"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        lessonRepository.deleteAll();
+    }
+
+    // ==================== Keyset Pagination Tests ====================
+
+    @Test
+    void testFindAllByOrderByIdAsc_RespectsLimit() {
+        // Act
+        List<Lesson> firstPage = lessonRepository.findAllByOrderByIdAsc(Limit.of(3));
+
+        // Assert
+        assertEquals(3, firstPage.size());
+        assertEquals("Math 1", firstPage.get(0).getTitle());
+        assertEquals("Math 3", firstPage.get(2).getTitle());
+    }
+
+    @Test
+    void testFindByIdGreaterThan_WalksWholeCollection() {
+        // Act - walk the collection with pages of 3
+        List<Lesson> page1 = lessonRepository.findAllByOrderByIdAsc(Limit.of(3));
+        List<Lesson> page2 = lessonRepository.findByIdGreaterThanOrderByIdAsc(page1.get(2).getId(), Limit.of(3));
+        List<Lesson> page3 = lessonRepository.findByIdGreaterThanOrderByIdAsc(page2.get(2).getId(), Limit.of(3));
+
+        // Assert - no overlap, nothing skipped
+        assertEquals("Math 4", page2.get(0).getTitle());
+        assertEquals("History 1", page2.get(2).getTitle());
+        assertEquals(1, page3.size());
+        assertEquals("History 2", page3.get(0).getTitle());
+    }
+
+    @Test
+    void testFindBySubjectIdAndIdGreaterThan_OnlyReturnsSubject() {
+        // Arrange
+        List<Lesson> firstPage = lessonRepository.findBySubjectIdOrderByIdAsc("sub-1", Limit.of(2));
+
+        // Act
+        List<Lesson> nextPage = lessonRepository.findBySubjectIdAndIdGreaterThanOrderByIdAsc(
+                "sub-1", firstPage.get(1).getId(), Limit.of(10));
+
+        // Assert
+        assertEquals(2, firstPage.size());
+        assertEquals(3, nextPage.size());
+        assertEquals("Math 3", nextPage.get(0).getTitle());
+        assertTrue(nextPage.stream().allMatch(lesson -> "sub-1".equals(lesson.getSubjectId())));
+    }
+
+    @Test
+    void testFindBySubjectIdOrderByIdAsc_UnknownSubject() {
+        // Act
+        List<Lesson> lessons = lessonRepository.findBySubjectIdOrderByIdAsc("sub-999", Limit.of(10));
+
+        // Assert
+        assertTrue(lessons.isEmpty());
+    }
+
+    // ==================== Summary Projection Tests ====================
+
+    @Test
+    void testFindSummariesBySubjectId_OnlyLoadsProjectedFields() {
+        // Arrange
+        Lesson video = new Lesson("Video Lesson", "Long content", "sub-3");
+        video.setVideoUrl("https://youtube.com/watch?v=example");
+        video.setContentType("VIDEO");
+        lessonRepository.save(video);
+
+        // Act
+        List<Lesson> summaries = lessonRepository.findSummariesBySubjectId("sub-3", Limit.of(10));
+
+        // Assert - content and subjectId are not part of the projection
+        assertEquals(1, summaries.size());
+        assertNotNull(summaries.get(0).getId());
+        assertEquals("Video Lesson", summaries.get(0).getTitle());
+        assertEquals("VIDEO", summaries.get(0).getContentType());
+        assertEquals("https://youtube.com/watch?v=example", summaries.get(0).getVideoUrl());
+        assertNull(summaries.get(0).getContent());
+        assertNull(summaries.get(0).getSubjectId());
+    }
+
+    @Test
+    void testFindSummariesBySubjectIdAfter_Paginates() {
+        // Arrange
+        List<Lesson> firstPage = lessonRepository.findSummariesBySubjectId("sub-1", Limit.of(2));
+
+        // Act
+        List<Lesson> nextPage = lessonRepository.findSummariesBySubjectIdAfter(
+                "sub-1", firstPage.get(1).getId(), Limit.of(2));
+
+        // Assert
+        assertEquals("Math 1", firstPage.get(0).getTitle());
+        assertEquals(2, nextPage.size());
+        assertEquals("Math 3", nextPage.get(0).getTitle());
+        assertEquals("Math 4", nextPage.get(1).getTitle());
+    }
+
+    // ==================== Index Tests ====================
+
+    @Test
+    void testSubjectListingIndex_IsCreated() {
+        // Act - created on startup (spring.data.mongodb.auto-index-creation=true)
+        List<IndexInfo> indexes = mongoTemplate.indexOps(Lesson.class).getIndexInfo();
+
+        // Assert
+        IndexInfo listingIndex = indexes.stream()
+                .filter(index -> "subject_listing_idx".equals(index.getName()))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(listingIndex, "Compound index for subject listings should exist");
+        assertEquals("subjectId", listingIndex.getIndexFields().get(0).getKey());
+        assertEquals("_id", listingIndex.getIndexFields().get(1).getKey());
+    }
+
+    @Test
+    void testTextIndex_WeightsTitleOverContent() {
+        // Act - created on startup from @TextIndexed
+        Document textIndex = mongoTemplate.getCollection("lessons").listIndexes().into(new ArrayList<>()).stream()
+                .filter(index -> index.get("weights") != null)
+                .findFirst()
+                .orElse(null);
+        // In-memory MongoDB stand-ins do not keep text indexes, a real server is needed here
+        assumeTrue(textIndex != null, "text indexes not supported by this MongoDB server");
+
+        // Assert
+        Document weights = textIndex.get("weights", Document.class);
+        assertEquals(5, weights.get("title", Number.class).intValue());
+        // The default weight 1 is not sent along, MongoDB lists it nevertheless
+        assertEquals(1, weights.get("content", (Number) 1).intValue());
+        assertEquals("none", textIndex.getString("default_language"));
+    }
+
+    // Explains the find that LessonRepository.findSummariesBySubjectId really sends (captured by FindCommands),
+    // so a change of the @Query, its projection or sort is checked against the index as well.
+    // explain needs a real MongoDB server (MONGODB_URI, as in the CI build); in-memory stand-ins do not implement
+    // it and only get the first part of the test, the checks of the captured command.
+    @Test
+    void testSummaryQuery_IsCoveredByIndex() {
+        // Arrange
+        findCommands.clear();
+        lessonRepository.findSummariesBySubjectId("sub-1", Limit.of(51));
+        BsonDocument find = findCommands.last();
+        assertEquals(new BsonDocument("subjectId", new BsonString("sub-1")), find.getDocument("filter"));
+        assertFalse(find.getDocument("projection").containsKey("content"), "Content must not be loaded");
+
+        // Act - the query part of the command, without the fields the driver adds (session, cluster time, ...)
+        Document query = new Document("find", find.get("find"));
+        for (String key : List.of("filter", "projection", "sort", "limit")) {
+            if (find.containsKey(key)) {
+                query.append(key, find.get(key));
+            }
+        }
+        Document explain;
+        try {
+            explain = mongoTemplate.getDb().runCommand(new Document("explain", query).append("verbosity", "queryPlanner"));
+        } catch (MongoCommandException e) {
+            assumeTrue(false, "explain not supported by this MongoDB server: " + e.getErrorMessage());
+            return;
+        }
+
+        // Assert - index scan only: no document fetch, no collection scan, no in-memory sort
+        Set<String> stages = new HashSet<>();
+        collectStages(explain.get("queryPlanner", Document.class).get("winningPlan"), stages);
+        assertTrue(stages.contains("IXSCAN"), "Expected IXSCAN but plan was " + stages);
+        assertFalse(stages.contains("FETCH"), "Query should be covered, plan was " + stages);
+        assertFalse(stages.contains("COLLSCAN"), "Plan was " + stages);
+        assertFalse(stages.contains("SORT"), "Plan was " + stages);
+    }
+
+    // Walks the (nested) explain plan and collects all stage names
+    private void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    // ==================== Streaming Tests ====================
+
+    @Test
+    void testStreamAllBy_ReturnsEveryLesson() {
+        // Act - the stream holds an open cursor and has to be closed
+        try (Stream<Lesson> lessons = lessonRepository.streamAllBy()) {
+            // Assert
+            assertEquals(7, lessons.count());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ch.zhaw.stellarcompass.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ch.zhaw.stellarcompass.model.Subject;
+
+@SpringBootTest
+class SubjectRepositoryTest {
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    private Subject math;
+    private Subject physics;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up before each test
+        subjectRepository.deleteAll();
+
+        math = subjectRepository.save(new Subject("Mathematik", "Algebra"));
+        physics = subjectRepository.save(new Subject("Physik", "Mechanik"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void testFindIdsByIdIn_OnlyExistingIds() {
+        // Act
+        List<Subject> found = subjectRepository.findIdsByIdIn(
+                List.of(math.getId(), physics.getId(), "65f0c0ffee0123456789abcd"));
+
+        // Assert
+        assertEquals(2, found.size());
+        assertTrue(found.stream().anyMatch(subject -> math.getId().equals(subject.getId())));
+        assertTrue(found.stream().anyMatch(subject -> physics.getId().equals(subject.getId())));
+    }
+
+    @Test
+    void testFindIdsByIdIn_OnlyLoadsId() {
+        // Act
+        List<Subject> found = subjectRepository.findIdsByIdIn(List.of(math.getId()));
+
+        // Assert - title and description are not part of the projection
+        assertEquals(1, found.size());
+        assertNull(found.get(0).getTitle());
+        assertNull(found.get(0).getDescription());
+    }
+}
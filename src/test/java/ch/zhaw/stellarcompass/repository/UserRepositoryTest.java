@@ -13,6 +13,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import ch.zhaw.stellarcompass.model.User;
 import ch.zhaw.stellarcompass.model.UserRole;
@@ -339,4 +340,35 @@ class UserRepositoryTest {
         assertNotNull(foundStudent);
         assertEquals(mentor.getId(), foundStudent.getMentorId());
     }
+
+    // ==================== Version Tests ====================
+
+    @Test
+    void testSave_StartsAtVersionZero_AndIncrements() {
+        // Act
+        User saved = userRepository.save(testStudent);
+        saved.setName("Renamed");
+        User updated = userRepository.save(saved);
+
+        // Assert
+        assertEquals(1L, updated.getVersion());
+        assertEquals(1L, userRepository.findById(saved.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testSave_StaleVersion_ThrowsOptimisticLockingFailure() {
+        // Arrange - two writers read the same version
+        String id = userRepository.save(testStudent).getId();
+        User first = userRepository.findById(id).orElseThrow();
+        User second = userRepository.findById(id).orElseThrow();
+
+        // Act
+        first.setName("First Writer");
+        userRepository.save(first);
+        second.setName("Second Writer");
+
+        // Assert - the second write does not overwrite the first one
+        assertThrows(OptimisticLockingFailureException.class, () -> userRepository.save(second));
+        assertEquals("First Writer", userRepository.findById(id).orElseThrow().getName());
+    }
 }
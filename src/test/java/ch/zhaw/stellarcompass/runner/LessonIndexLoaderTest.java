@@ -0,0 +1,73 @@
+package ch.zhaw.stellarcompass.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+// Two parallel tasks for three subjects, so one task scans several subjects
+@SpringBootTest(properties = "stellarcompass.lesson-index.parallelism=2")
+class LessonIndexLoaderTest {
+
+    @Autowired
+    private LessonIndexLoader loader;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        List<Lesson> lessons = mongoTemplate.findAllAndRemove(
+                Query.query(Criteria.where("subjectId").in("loader-1", "loader-2", "loader-3")), Lesson.class);
+        lessons.forEach(lesson -> lessonIndex.remove(lesson.getId()));
+    }
+
+    @Test
+    void testLoad_IndexesLessonsOfAllSubjects() {
+        // Arrange - written around LessonService, so only the loader can index them
+        mongoTemplate.insert(new Lesson("Magnetar", "Neutron star", "loader-1"));
+        mongoTemplate.insert(new Lesson("Magnetic fields", "Compass", "loader-2"));
+        mongoTemplate.insert(new Lesson("Pulsar", "Magnetic neutron star", "loader-3"));
+
+        // Act
+        long read = loader.load();
+
+        // Assert
+        assertTrue(read >= 3);
+        assertTrue(lessonIndex.isReady());
+        List<LessonSearchHitDTO> hits = lessonIndex.search("magne", null, 10);
+        assertEquals(3, hits.stream().filter(hit -> hit.getSubjectId().startsWith("loader-")).count());
+        assertEquals(1, lessonIndex.search("neutron magnetar", "loader-1", 10).size());
+    }
+
+    @Test
+    void testLoad_KeepsNewerIndexedVersion() {
+        // Arrange - an update reached the index before the loader read the lesson
+        Lesson stored = mongoTemplate.insert(new Lesson("Nebula", "Gas", "loader-1"));
+        Lesson updated = new Lesson("Supernova", "Gas", "loader-1");
+        updated.setId(stored.getId());
+        updated.setVersion(stored.getVersion() + 1);
+        lessonIndex.index(updated);
+
+        // Act
+        loader.load();
+
+        // Assert
+        assertTrue(lessonIndex.search("nebula ", null, 10).isEmpty());
+        assertEquals(stored.getId(), lessonIndex.search("supernova ", null, 10).get(0).getId());
+    }
+}
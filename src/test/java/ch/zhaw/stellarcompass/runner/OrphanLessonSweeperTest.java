@@ -0,0 +1,115 @@
+package ch.zhaw.stellarcompass.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import ch.zhaw.stellarcompass.config.CacheConfig;
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.search.LessonIndex;
+
+// Small batches, so the ids are checked and deleted in several rounds
+@SpringBootTest(properties = "stellarcompass.orphan-sweep.batch-size=2")
+class OrphanLessonSweeperTest {
+
+    @Autowired
+    private OrphanLessonSweeper sweeper;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
+    private Subject existing;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Lesson.class);
+        existing = mongoTemplate.insert(new Subject("Sweeper Subject", "Still there"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.remove(new Query(), Lesson.class);
+        mongoTemplate.remove(existing);
+    }
+
+    @Test
+    void testSweep_RemovesOnlyLessonsOfMissingSubjects() {
+        // Arrange - one existing subject, three deleted ones
+        String deleted1 = new ObjectId().toHexString();
+        String deleted2 = new ObjectId().toHexString();
+        mongoTemplate.insert(new Lesson("Kept 1", "Content", existing.getId()));
+        mongoTemplate.insert(new Lesson("Kept 2", "Content", existing.getId()));
+        mongoTemplate.insert(new Lesson("Orphan 1", "Content", deleted1));
+        mongoTemplate.insert(new Lesson("Orphan 2", "Content", deleted1));
+        mongoTemplate.insert(new Lesson("Orphan 3", "Content", deleted2));
+        mongoTemplate.insert(new Lesson("Orphan 4", "Content", "not-an-object-id"));
+
+        // Act
+        long removed = sweeper.sweep();
+
+        // Assert
+        assertEquals(4, removed);
+        List<Lesson> remaining = mongoTemplate.findAll(Lesson.class);
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.stream().allMatch(lesson -> existing.getId().equals(lesson.getSubjectId())));
+    }
+
+    @Test
+    void testSweep_RemovesOrphansFromSearchIndex() {
+        // Arrange
+        Lesson orphan = mongoTemplate.insert(new Lesson("Quasar orphan", "Content", new ObjectId().toHexString()));
+        lessonIndex.index(orphan);
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        assertTrue(lessonIndex.search("quasar ", null, 10).isEmpty());
+    }
+
+    @Test
+    void testSweep_NoOrphans_KeepsCache() {
+        // Arrange
+        mongoTemplate.insert(new Lesson("Kept", "Content", existing.getId()));
+        cacheManager.getCache(CacheConfig.LESSON_BY_ID).put("cached-id", new Lesson("Cached", "Content", existing.getId()));
+
+        // Act
+        long removed = sweeper.sweep();
+
+        // Assert
+        assertEquals(0, removed);
+        assertEquals(1, mongoTemplate.count(new Query(), Lesson.class));
+        assertNotNull(cacheManager.getCache(CacheConfig.LESSON_BY_ID).get("cached-id"));
+        cacheManager.getCache(CacheConfig.LESSON_BY_ID).evict("cached-id");
+    }
+
+    @Test
+    void testSweep_RemovedLessons_ClearLessonCache() {
+        // Arrange
+        mongoTemplate.insert(new Lesson("Orphan", "Content", new ObjectId().toHexString()));
+        cacheManager.getCache(CacheConfig.LESSON_BY_ID).put("cached-id", new Lesson("Cached", "Content", "x"));
+
+        // Act
+        sweeper.sweep();
+
+        // Assert
+        assertNull(cacheManager.getCache(CacheConfig.LESSON_BY_ID).get("cached-id"));
+    }
+}
@@ -0,0 +1,123 @@
+package ch.zhaw.stellarcompass.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
+import ch.zhaw.stellarcompass.model.User;
+import ch.zhaw.stellarcompass.model.UserRole;
+
+// The generator runs on startup of this context (CommandLineRunner) with a small data set
+@SpringBootTest(properties = {
+        "stellarcompass.synthetic-data.subjects=4",
+        "stellarcompass.synthetic-data.lessons-per-subject=5",
+        "stellarcompass.synthetic-data.users=40",
+        "stellarcompass.synthetic-data.mentor-share=0.1",
+        "stellarcompass.synthetic-data.admin-share=0.05",
+        "stellarcompass.synthetic-data.min-content-chars=100",
+        "stellarcompass.synthetic-data.max-content-chars=2000",
+        "stellarcompass.synthetic-data.batch-size=3",
+        "stellarcompass.synthetic-data.drop-existing=true"
+})
+@ActiveProfiles(SyntheticDataGenerator.PROFILE)
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanup() {
+        // Remove the documents but keep the indexes for the other tests
+        mongoTemplate.remove(new Query(), Lesson.class);
+        mongoTemplate.remove(new Query(), Subject.class);
+        mongoTemplate.remove(new Query(), User.class);
+    }
+
+    @Test
+    void testGenerate_CreatesConfiguredAmounts() {
+        // Act
+        SyntheticDataGenerator.Summary summary = generator.generate();
+
+        // Assert
+        assertEquals(4, mongoTemplate.count(new Query(), Subject.class));
+        assertEquals(20, mongoTemplate.count(new Query(), Lesson.class));
+        assertEquals(40, mongoTemplate.count(new Query(), User.class));
+        assertEquals(20, summary.lessons());
+
+        // Every lesson references an existing subject, five per subject
+        for (Subject subject : mongoTemplate.findAll(Subject.class)) {
+            assertEquals(5, mongoTemplate.count(Query.query(Criteria.where("subjectId").is(subject.getId())), Lesson.class));
+        }
+    }
+
+    @Test
+    void testGenerate_SameSeed_SameDocuments() {
+        // Arrange
+        generator.generate();
+        Lesson first = mongoTemplate.findById(SyntheticDataGenerator.id((byte) 2, 7), Lesson.class);
+
+        // Act - drop-existing=true, so the collections are recreated
+        generator.generate();
+        Lesson second = mongoTemplate.findById(SyntheticDataGenerator.id((byte) 2, 7), Lesson.class);
+
+        // Assert
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertTrue(first.getContent().length() >= 100 && first.getContent().length() <= 2000);
+    }
+
+    @Test
+    void testGenerate_InitializesVersion() {
+        // Act
+        generator.generate();
+
+        // Assert - bulk inserts bypass save(), so the generator sets version 0 itself
+        assertTrue(mongoTemplate.findAll(Subject.class).stream().allMatch(subject -> Long.valueOf(0L).equals(subject.getVersion())));
+        assertTrue(mongoTemplate.findAll(Lesson.class).stream().allMatch(lesson -> Long.valueOf(0L).equals(lesson.getVersion())));
+        assertTrue(mongoTemplate.findAll(User.class).stream().allMatch(user -> Long.valueOf(0L).equals(user.getVersion())));
+    }
+
+    @Test
+    void testGenerate_RolesAndMentorAssignment() {
+        // Act
+        generator.generate();
+
+        // Assert - 2 admins, 4 mentors, 34 students, every student has an existing mentor
+        assertEquals(2, mongoTemplate.count(Query.query(Criteria.where("role").is(UserRole.ADMIN)), User.class));
+        assertEquals(4, mongoTemplate.count(Query.query(Criteria.where("role").is(UserRole.MENTOR)), User.class));
+        List<User> students = mongoTemplate.find(Query.query(Criteria.where("role").is(UserRole.STUDENT)), User.class);
+        assertEquals(34, students.size());
+        for (User student : students) {
+            User mentor = mongoTemplate.findById(student.getMentorId(), User.class);
+            assertNotNull(mentor, "Mentor of " + student.getEmail() + " should exist");
+            assertEquals(UserRole.MENTOR, mentor.getRole());
+        }
+    }
+
+    @Test
+    void testGenerate_RecreatesIndexes() {
+        // Act
+        generator.generate();
+
+        // Assert - dropping the collections dropped the indexes, they are built again after the load
+        List<IndexInfo> lessonIndexes = mongoTemplate.indexOps(Lesson.class).getIndexInfo();
+        assertTrue(lessonIndexes.stream().anyMatch(index -> "subject_listing_idx".equals(index.getName())));
+        List<IndexInfo> userIndexes = mongoTemplate.indexOps(User.class).getIndexInfo();
+        assertTrue(userIndexes.stream().anyMatch(index -> index.isUnique() && "email".equals(index.getIndexFields().get(0).getKey())));
+    }
+}
@@ -0,0 +1,60 @@
+package ch.zhaw.stellarcompass.runner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import ch.zhaw.stellarcompass.model.Lesson;
+
+@SpringBootTest
+class VersionBackfillTest {
+
+    @Autowired
+    private VersionBackfill versionBackfill;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectId legacyId = new ObjectId();
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(legacyId)), Lesson.class);
+    }
+
+    @Test
+    void testBackfill_GivesLegacyDocumentsVersionZero() {
+        // Arrange - a lesson written without a version field (e.g. before @Version or by another tool)
+        mongoTemplate.getCollection("lessons").insertOne(new Document("_id", legacyId)
+                .append("title", "Legacy").append("content", "Content").append("subjectId", "sub-1"));
+
+        // Act
+        long updated = versionBackfill.backfill();
+
+        // Assert
+        assertTrue(updated >= 1);
+        assertEquals(0L, mongoTemplate.findById(legacyId, Lesson.class).getVersion());
+    }
+
+    @Test
+    void testBackfill_KeepsExistingVersions() {
+        // Arrange
+        mongoTemplate.getCollection("lessons").insertOne(new Document("_id", legacyId)
+                .append("title", "Versioned").append("content", "Content").append("subjectId", "sub-1")
+                .append("version", 7L));
+
+        // Act
+        versionBackfill.backfill();
+
+        // Assert
+        assertEquals(7L, mongoTemplate.findById(legacyId, Lesson.class).getVersion());
+    }
+}
@@ -0,0 +1,117 @@
+package ch.zhaw.stellarcompass.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AnalyzerPipelineTest {
+
+    private final TextAnalyzer standard = AnalyzerPipeline.standard();
+    private final TextAnalyzer dariPashto = AnalyzerPipeline.dariPashto();
+
+    // ==================== Standard Tests ====================
+
+    @Test
+    void testStandard_LowerCasesAndSplitsOnNonWordCharacters() {
+        // Act
+        List<String> terms = standard.analyze("Lineare Gleichungen: x+1=2, Übung 3!");
+
+        // Assert
+        assertEquals(List.of("lineare", "gleichungen", "x", "1", "2", "übung", "3"), terms);
+    }
+
+    @Test
+    void testStandard_NullAndBlank() {
+        // Act & Assert
+        assertTrue(standard.analyze(null).isEmpty());
+        assertTrue(standard.analyze("  ,; ").isEmpty());
+    }
+
+    @Test
+    void testStandard_SplitsArabicScriptWordsAtZwnjAndDiacritics() {
+        // Act & Assert - the misses the Dari/Pashto pipeline is there for
+        assertEquals(List.of("کتاب", "ها"), standard.analyze("کتاب\u200Cها"));
+        assertEquals(List.of("ک", "ت", "اب"), standard.analyze("ک\u0650ت\u064Eاب"));
+    }
+
+    @Test
+    void testStandard_SkipsOverlongTerms() {
+        // Act
+        List<String> terms = standard.analyze("a".repeat(AnalyzerPipeline.MAX_TERM_LENGTH + 1) + " b");
+
+        // Assert
+        assertEquals(List.of("b"), terms);
+    }
+
+    // ==================== Dari/Pashto Tests ====================
+
+    // Variant spelling, canonical spelling
+    @ParameterizedTest
+    @CsvSource({
+        "علمي, علمی",                          // Arabic yeh
+        "موسى, موسی",                          // alef maksura
+        "كتاب, کتاب",                          // Arabic kaf
+        "ګډون, گډون",                          // Pashto gaf with ring
+        "أفغانستان, افغانستان",                // alef with hamza above
+        "آب, اب",                              // alef with madda
+        "جغرافية, جغرافیه",                    // teh marbuta (and Arabic yeh)
+        "خانۀ, خانه",                          // heh with yeh above
+        "سؤال, سوال",                          // waw with hamza
+        "کت\u0640\u0640\u0640اب, کتاب",       // tatweel
+        "ک\u0650ت\u064Eاب, کتاب",             // kasra and fatha
+        "\uFEDB\uFE98\uFE8E\uFE8F, کتاب"      // presentation forms
+    })
+    void testDariPashto_FoldsVariantsOntoOneTerm(String variant, String canonical) {
+        // Act & Assert
+        assertEquals(List.of(canonical), dariPashto.analyze(variant));
+        assertEquals(List.of(canonical), dariPashto.analyze(canonical));
+    }
+
+    @Test
+    void testDariPashto_IndexesZwnjCompoundJoinedAndInParts() {
+        // Act
+        List<String> indexed = dariPashto.analyze("کتاب\u200Cها می\u200Cخوانم");
+        List<String> query = dariPashto.analyzeQuery("کتاب\u200Cها می\u200Cخوانم");
+
+        // Assert - a query only has to match the joined word
+        assertEquals(List.of("کتابها", "کتاب", "ها", "میخوانم", "می", "خوانم"), indexed);
+        assertEquals(List.of("کتابها", "میخوانم"), query);
+    }
+
+    @Test
+    void testDariPashto_IgnoresZwnjAtWordBoundaries() {
+        // Act & Assert
+        assertEquals(List.of("کتاب"), dariPashto.analyze("\u200Cکتاب\u200C"));
+    }
+
+    @Test
+    void testDariPashto_KeepsPashtoLetters() {
+        // Act & Assert - ښ ځ ډ ړ ې ۍ have no Persian counterpart
+        assertEquals(List.of("ښوونځی", "ډېر", "کورنۍ", "ړوند"), dariPashto.analyze("ښوونځی ډېر کورنۍ ړوند"));
+    }
+
+    @Test
+    void testDariPashto_ConvertsDigits() {
+        // Act & Assert - Persian and Arabic-Indic digits
+        assertEquals(List.of("درس", "12", "34"), dariPashto.analyze("درس ۱۲ ٣٤"));
+    }
+
+    @Test
+    void testDariPashto_SplitsOnArabicPunctuation() {
+        // Act & Assert - Arabic comma, semicolon and question mark
+        assertEquals(List.of("درس", "کتاب", "شاگرد", "چیست"), dariPashto.analyze("درس،کتاب؛ شاگرد چیست؟"));
+    }
+
+    @Test
+    void testDariPashto_LatinTextLikeStandard() {
+        // Arrange
+        String text = "Lesson 1: Übung Photosynthesis, درس اول";
+
+        // Act & Assert
+        assertEquals(List.of("lesson", "1", "übung", "photosynthesis", "درس", "اول"), dariPashto.analyze(text));
+    }
+}
@@ -0,0 +1,323 @@
+package ch.zhaw.stellarcompass.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
+
+class LessonIndexTest {
+
+    private LessonIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LessonIndex();
+    }
+
+    private static Lesson lesson(String id, String title, String content, String subjectId, long version) {
+        Lesson lesson = new Lesson(title, content, subjectId);
+        lesson.setId(id);
+        lesson.setVersion(version);
+        return lesson;
+    }
+
+    private static List<String> ids(List<LessonSearchHitDTO> hits) {
+        return hits.stream().map(LessonSearchHitDTO::getId).toList();
+    }
+
+    // ==================== Ranking Tests ====================
+
+    @Test
+    void testSearch_TitleMatchRanksAboveContentMatch() {
+        // Arrange
+        index.index(lesson("content", "Intro", "Photosynthesis in plants", "sub-1", 0));
+        index.index(lesson("title", "Photosynthesis", "Plants and light", "sub-1", 0));
+
+        // Act
+        List<LessonSearchHitDTO> hits = index.search("photosynthesis ", null, 10);
+
+        // Assert
+        assertEquals(List.of("title", "content"), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testSearch_RareTermWeighsMoreThanCommonTerm() {
+        // Arrange - "water" is in every lesson, "delta" only in one
+        index.index(lesson("a", "Rivers", "water water water", "sub-1", 0));
+        index.index(lesson("b", "Rivers", "water delta", "sub-1", 0));
+        index.index(lesson("c", "Rivers", "water", "sub-1", 0));
+
+        // Act
+        List<LessonSearchHitDTO> hits = index.search("water delta ", null, 10);
+
+        // Assert - all words have to match
+        assertEquals(List.of("b"), ids(hits));
+        assertTrue(index.search("delta ", null, 10).get(0).getScore() > index.search("water ", null, 10).get(0).getScore());
+    }
+
+    @Test
+    void testSearch_ShorterLessonRanksHigherForSameFrequency() {
+        // Arrange
+        index.index(lesson("long", "Energy", "force " + "filler ".repeat(50), "sub-1", 0));
+        index.index(lesson("short", "Energy", "force", "sub-1", 0));
+
+        // Act
+        List<LessonSearchHitDTO> hits = index.search("force ", null, 10);
+
+        // Assert
+        assertEquals(List.of("short", "long"), ids(hits));
+    }
+
+    @Test
+    void testSearch_ReturnsHitFields() {
+        // Arrange
+        Lesson video = lesson("video", "Fractions", "Halves and quarters", "sub-1", 0);
+        video.setContentType("VIDEO");
+        video.setVideoUrl("https://youtube.com/watch?v=fractions");
+        index.index(video);
+
+        // Act
+        LessonSearchHitDTO hit = index.search("fractions", null, 10).get(0);
+
+        // Assert
+        assertEquals("Fractions", hit.getTitle());
+        assertEquals("sub-1", hit.getSubjectId());
+        assertEquals("VIDEO", hit.getContentType());
+        assertTrue(hit.isHasVideo());
+    }
+
+    @Test
+    void testSearch_RespectsLimitAndSubject() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            index.index(lesson("lesson-" + i, "Algebra " + i, "Equations", i % 2 == 0 ? "sub-1" : "sub-2", 0));
+        }
+
+        // Act
+        List<LessonSearchHitDTO> limited = index.search("algebra", null, 5);
+        List<LessonSearchHitDTO> subject = index.search("algebra", "sub-2", 50);
+
+        // Assert
+        assertEquals(5, limited.size());
+        assertEquals(10, subject.size());
+        assertTrue(subject.stream().allMatch(hit -> "sub-2".equals(hit.getSubjectId())));
+    }
+
+    // ==================== Prefix Tests ====================
+
+    @Test
+    void testSearch_LastWordIsPrefixWhileTyping() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles and circles", "sub-1", 0));
+        index.index(lesson("b", "Geography", "Rivers and mountains", "sub-1", 0));
+        index.index(lesson("c", "History", "Kings", "sub-1", 0));
+
+        // Act & Assert
+        assertEquals(List.of("a", "b"), ids(index.search("geo", null, 10)).stream().sorted().toList());
+        assertEquals(List.of("a"), ids(index.search("geometry tri", null, 10)));
+        // A finished word (trailing space) has to match exactly
+        assertTrue(index.search("geo ", null, 10).isEmpty());
+    }
+
+    @Test
+    void testSearch_PrefixCountsBestExpansionOnce() {
+        // Arrange - one lesson contains two expansions of "equ", the other only one
+        index.index(lesson("both", "Maths", "equal equation", "sub-1", 0));
+        index.index(lesson("one", "Maths", "equal other", "sub-1", 0));
+
+        // Act
+        List<LessonSearchHitDTO> hits = index.search("equ", null, 10);
+
+        // Assert - the rarer "equation" counts, not the sum of both expansions
+        assertEquals(List.of("both", "one"), ids(hits));
+        assertEquals(index.search("equation ", null, 10).get(0).getScore(), hits.get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void testSearch_UnknownWordAndBlankQuery() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+
+        // Act & Assert
+        assertTrue(index.search("zebra", null, 10).isEmpty());
+        assertTrue(index.search("   ", null, 10).isEmpty());
+    }
+
+    // ==================== Update Tests ====================
+
+    @Test
+    void testIndex_NewerVersionReplacesLesson() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+
+        // Act
+        index.index(lesson("a", "Algebra", "Equations", "sub-1", 1));
+
+        // Assert
+        assertTrue(index.search("geometry", null, 10).isEmpty());
+        assertEquals("Algebra", index.search("algebra", null, 10).get(0).getTitle());
+        assertEquals(1, index.memoryReport().lessons());
+    }
+
+    @Test
+    void testIndex_IgnoresStaleVersion() {
+        // Arrange - the update was applied before the loader got to the old state
+        index.index(lesson("a", "Algebra", "Equations", "sub-1", 1));
+
+        // Act
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+
+        // Assert
+        assertTrue(index.search("geometry", null, 10).isEmpty());
+        assertEquals(1, index.search("algebra", null, 10).size());
+    }
+
+    @Test
+    void testRemove_LessonIsNotFoundAnymore() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+        index.index(lesson("b", "Geometry", "Circles", "sub-1", 0));
+
+        // Act
+        index.remove("a");
+
+        // Assert
+        assertEquals(List.of("b"), ids(index.search("geometry", null, 10)));
+        assertEquals(1, index.memoryReport().tombstones());
+    }
+
+    @Test
+    void testRemoveSubjects_RemovesAllLessonsOfSubject() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+        index.index(lesson("b", "Geometry", "Circles", "sub-2", 0));
+
+        // Act
+        index.removeSubjects(List.of("sub-1"));
+
+        // Assert
+        assertEquals(List.of("b"), ids(index.search("geometry", null, 10)));
+    }
+
+    @Test
+    void testLoad_RemovalDuringLoadWins() {
+        // Arrange - the loader read the lesson, then it was deleted before the loader indexed it
+        index.beginLoad();
+        index.remove("a");
+
+        // Act
+        index.index(lesson("a", "Geometry", "Triangles", "sub-1", 0));
+        index.endLoad();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertTrue(index.search("geometry", null, 10).isEmpty());
+    }
+
+    @Test
+    void testCompaction_DropsTombstonesAndKeepsResults() {
+        // Arrange - update every lesson once: half of the ordinals are tombstones
+        for (int i = 0; i < 2000; i++) {
+            index.index(lesson("lesson-" + i, "Lesson " + i, "Photosynthesis", "sub-1", 0));
+        }
+        for (int i = 0; i < 2000; i++) {
+            index.index(lesson("lesson-" + i, "Lesson " + i, "Respiration", "sub-1", 1));
+        }
+
+        // Act
+        LessonIndex.MemoryReport report = index.memoryReport();
+
+        // Assert
+        assertEquals(2000, report.lessons());
+        assertTrue(report.tombstones() < 2000 / 3, "Tombstones: " + report.tombstones());
+        assertTrue(index.search("photosynthesis", null, 50).isEmpty());
+        assertEquals(50, index.search("respiration", null, 50).size());
+        assertEquals("lesson-7", index.search("lesson 7 ", null, 10).get(0).getId());
+    }
+
+    // ==================== Variant Spelling Tests ====================
+    // Dari and Pashto lessons as typed on a Persian/Pashto keyboard, searched with the spellings other
+    // keyboards and writers produce
+
+    private static void indexDariPashtoLessons(LessonIndex index) {
+        index.index(lesson("fa-1", "کتاب\u200Cهای ریاضی", "تمرین\u200Cها و مثال\u200Cهای جغرافیه", "dari", 0));
+        index.index(lesson("fa-2", "آموزش زبان دری", "شاگردان می\u200Cخوانند و می\u200Cنویسند", "dari", 0));
+        index.index(lesson("fa-3", "تاریخ افغانستان", "درس ۱۲: سؤال\u200Cها و جواب\u200Cها", "dari", 0));
+        index.index(lesson("ps-1", "د ښوونځي کتابونه", "زده\u200Cکړه او لوست", "pashto", 0));
+        index.index(lesson("ps-2", "روغتیا او کورنۍ", "د اوبو پاکول بېلګه", "pashto", 0));
+    }
+
+    // Query as typed, expected lesson
+    @ParameterizedTest
+    @CsvSource({
+        "كتاب, fa-1",                       // Arabic kaf
+        "ریاضي, fa-1",                      // Arabic yeh
+        "ک\u0650ت\u064Eاب, fa-1",          // harakat
+        "جغرافية, fa-1",                    // teh marbuta and Arabic yeh
+        "اموزش, fa-2",                      // alef without madda
+        "میخوانند, fa-2",                   // joined instead of ZWNJ
+        "کتاب های ریاضی, fa-1",             // space instead of ZWNJ
+        "ميخوا, fa-2",                      // prefix with Arabic yeh
+        "أفغانستان, fa-3",                  // alef with hamza
+        "سوالها, fa-3",                     // waw without hamza, joined
+        "12, fa-3",                         // ASCII instead of Persian digits
+        "ښوونځی, ps-1",                     // Persian yeh for the Pashto ending
+        "زده\u200Cکړه, ps-1",              // ZWNJ in the query
+        "بېلگه, ps-2",                      // gaf instead of Pashto gaf
+        "روغتيا, ps-2"                      // Arabic yeh
+    })
+    void testSearch_FindsVariantSpellings(String query, String expectedId) {
+        // Arrange
+        indexDariPashtoLessons(index);
+
+        // Act
+        List<LessonSearchHitDTO> hits = index.search(query, null, 10);
+
+        // Assert - the last word is a prefix, other lessons may match as well
+        assertTrue(ids(hits).contains(expectedId), "Query " + query + " found " + ids(hits));
+    }
+
+    @Test
+    void testSearch_VariantRecallAgainstStandardAnalyzer() {
+        // Arrange - the same lessons, lower case only
+        LessonIndex standard = new LessonIndex(AnalyzerPipeline.standard());
+        indexDariPashtoLessons(index);
+        indexDariPashtoLessons(standard);
+        List<String> queries = List.of("كتاب ", "ریاضي ", "ک\u0650ت\u064Eاب ", "میخوانند ", "أفغانستان ", "سوالها ", "بېلگه ");
+
+        // Act
+        long foundDariPashto = queries.stream().filter(query -> !index.search(query, null, 10).isEmpty()).count();
+        long foundStandard = queries.stream().filter(query -> !standard.search(query, null, 10).isEmpty()).count();
+
+        // Assert - every variant is found, lower casing alone finds none of them
+        assertEquals(queries.size(), foundDariPashto);
+        assertEquals(0, foundStandard);
+    }
+
+    // ==================== Memory Report Tests ====================
+
+    @Test
+    void testMemoryReport_CountsTermsAndPostings() {
+        // Arrange
+        index.index(lesson("a", "Geometry", "Triangles triangles", "sub-1", 0));
+        index.index(lesson("b", "Geometry", "Circles", "sub-1", 0));
+
+        // Act
+        LessonIndex.MemoryReport report = index.memoryReport();
+
+        // Assert - geometry (2 postings), triangles, circles
+        assertEquals(2, report.lessons());
+        assertEquals(3, report.terms());
+        assertEquals(4, report.postings());
+        assertTrue(report.totalBytes() > 0);
+        assertEquals(report.totalBytes(), report.dictionaryBytes() + report.postingsBytes() + report.lessonBytes());
+    }
+}
@@ -0,0 +1,83 @@
+package ch.zhaw.stellarcompass.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import ch.zhaw.stellarcompass.model.UserRole;
+
+class UserRolesAuthenticationConverterTest {
+
+    private final UserRolesAuthenticationConverter converter = new UserRolesAuthenticationConverter();
+
+    @Test
+    void testConvert_ParsesRoles() {
+        // Arrange
+        Jwt jwt = jwt(List.of("ADMIN", "MENTOR"));
+
+        // Act
+        UserRolesAuthentication authentication = (UserRolesAuthentication) converter.convert(jwt);
+
+        // Assert
+        assertEquals(EnumSet.of(UserRole.ADMIN, UserRole.MENTOR), authentication.getRoles());
+        assertTrue(authentication.hasRole("ADMIN"));
+        assertTrue(authentication.hasRole(UserRole.MENTOR));
+        assertFalse(authentication.hasRole("STUDENT"));
+        assertEquals("auth0|user", authentication.getName());
+        assertSame(jwt, authentication.getPrincipal());
+    }
+
+    @Test
+    void testConvert_AddsRoleAndScopeAuthorities() {
+        // Act
+        UserRolesAuthentication authentication = (UserRolesAuthentication) converter.convert(jwt(List.of("STUDENT")));
+
+        // Assert
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_STUDENT", "SCOPE_openid", "SCOPE_email"), authorities);
+    }
+
+    @Test
+    void testConvert_UnknownAndLowercaseRoles_Ignored() {
+        // Act - role names have to match exactly, as with the claim before
+        UserRolesAuthentication authentication = (UserRolesAuthentication) converter.convert(jwt(List.of("admin", "TEACHER")));
+
+        // Assert
+        assertTrue(authentication.getRoles().isEmpty());
+        assertFalse(authentication.hasRole("admin"));
+        assertFalse(authentication.hasRole((String) null));
+    }
+
+    @Test
+    void testConvert_WithoutRolesClaim() {
+        // Act
+        UserRolesAuthentication authentication = (UserRolesAuthentication) converter.convert(jwt(null));
+
+        // Assert
+        assertTrue(authentication.getRoles().isEmpty());
+        assertFalse(authentication.hasRole("ADMIN"));
+    }
+
+    private Jwt jwt(List<String> roles) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("auth0|user")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .claim("scope", "openid email");
+        if (roles != null) {
+            builder.claim(UserRolesAuthenticationConverter.ROLES_CLAIM, roles);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,38 @@
+package ch.zhaw.stellarcompass.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.zhaw.stellarcompass.exception.BadRequestException;
+
+class BatchDeletesTest {
+
+    @Test
+    void testCheckIds_AcceptsUpToMax() {
+        // Act & Assert
+        assertDoesNotThrow(() -> BatchDeletes.checkIds(List.of("id-1")));
+        assertDoesNotThrow(() -> BatchDeletes.checkIds(Collections.nCopies(BatchDeletes.MAX_IDS, "id-1")));
+    }
+
+    @Test
+    void testCheckIds_EmptyOrNull_ThrowsException() {
+        // Act & Assert
+        assertEquals("At least one id is required",
+                assertThrows(BadRequestException.class, () -> BatchDeletes.checkIds(List.of())).getMessage());
+        assertThrows(BadRequestException.class, () -> BatchDeletes.checkIds(null));
+    }
+
+    @Test
+    void testCheckIds_TooMany_ThrowsException() {
+        // Arrange
+        List<String> ids = Collections.nCopies(BatchDeletes.MAX_IDS + 1, "id-1");
+
+        // Act & Assert
+        assertEquals("At most " + BatchDeletes.MAX_IDS + " ids per request",
+                assertThrows(BadRequestException.class, () -> BatchDeletes.checkIds(ids)).getMessage());
+    }
+}
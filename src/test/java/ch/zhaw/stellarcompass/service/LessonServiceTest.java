@@ -1,16 +1,27 @@
 package ch.zhaw.stellarcompass.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -18,12 +29,36 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.zhaw.stellarcompass.config.CacheConfig;
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
+import ch.zhaw.stellarcompass.dto.BulkResultDTO;
+import ch.zhaw.stellarcompass.dto.CursorPage;
 import ch.zhaw.stellarcompass.dto.LessonCreateDTO;
+import ch.zhaw.stellarcompass.dto.LessonSearchHitDTO;
+import ch.zhaw.stellarcompass.dto.LessonSummaryDTO;
+import ch.zhaw.stellarcompass.dto.LessonUpdateDTO;
+import ch.zhaw.stellarcompass.exception.BadRequestException;
 import ch.zhaw.stellarcompass.model.Lesson;
+import ch.zhaw.stellarcompass.model.Subject;
 import ch.zhaw.stellarcompass.repository.LessonRepository;
 import ch.zhaw.stellarcompass.repository.SubjectRepository;
+import ch.zhaw.stellarcompass.search.LessonIndex;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -38,12 +73,27 @@ class LessonServiceTest {
     @MockBean
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LessonIndex lessonIndex;
+
     private Lesson testLesson1;
     private Lesson testLesson2;
     private LessonCreateDTO validDTO;
 
     @BeforeEach
     void setUp() {
+        // The Spring context (and its caches) is shared between tests, start every test with empty caches
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
         // Setup test lessons
         testLesson1 = new Lesson("Intro to Java", "Basic concepts", "sub-1");
         testLesson1.setId("lesson-1");
@@ -62,6 +112,14 @@ class LessonServiceTest {
         when(validDTO.getContentType()).thenReturn("TEXT");
     }
 
+    @AfterEach
+    void cleanup() {
+        // Update tests store the test lessons in MongoDB
+        mongoTemplate.remove(Query.query(Criteria.where("id").in("lesson-1", "lesson-2")), Lesson.class);
+        lessonIndex.remove("lesson-1");
+        lessonIndex.remove("lesson-2");
+    }
+
     // ==================== CREATE Tests ====================
 
     @Test
@@ -141,34 +199,183 @@ class LessonServiceTest {
         assertEquals(contentType, result.getContentType());
     }
 
+    // ==================== BULK CREATE Tests ====================
+
+    @Test
+    void testCreateLessons_AllValid_OneSubjectQueryAndBulkInsert() throws Exception {
+        // Arrange
+        Subject subject = new Subject("Mathematik", "Algebra");
+        subject.setId("sub-1");
+        when(subjectRepository.findIdsByIdIn(any())).thenReturn(List.of(subject));
+        List<LessonCreateDTO> dtos = List.of(
+                lessonDTO("{\"title\": \"One\", \"content\": \"A\", \"subjectId\": \"sub-1\"}"),
+                lessonDTO("{\"title\": \"Two\", \"content\": \"B\", \"subjectId\": \"sub-1\", \"contentType\": \"VIDEO\"}"));
+
+        // Act
+        BulkResultDTO result = lessonService.createLessons(dtos);
+
+        // Assert
+        try {
+            assertEquals(2, result.getCreated());
+            assertEquals(0, result.getFailed());
+            verify(subjectRepository, times(1)).findIdsByIdIn(Set.of("sub-1"));
+            verify(subjectRepository, never()).existsById(anyString());
+            verify(lessonRepository, never()).save(any(Lesson.class));
+
+            Lesson stored = mongoTemplate.findById(result.getItems().get(1).getId(), Lesson.class);
+            assertNotNull(stored, "Lesson should have been written with the reported id");
+            assertEquals("Two", stored.getTitle());
+            assertEquals("VIDEO", stored.getContentType());
+        } finally {
+            result.getItems().forEach(item -> mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").is(new ObjectId(item.getId()))), Lesson.class));
+        }
+    }
+
+    @Test
+    void testCreateLessons_InvalidAndUnknownSubject_ReportedPerItem() throws Exception {
+        // Arrange
+        Subject subject = new Subject("Mathematik", "Algebra");
+        subject.setId("sub-1");
+        when(subjectRepository.findIdsByIdIn(any())).thenReturn(List.of(subject));
+        List<LessonCreateDTO> dtos = Arrays.asList(
+                lessonDTO("{\"content\": \"A\", \"subjectId\": \"sub-1\"}"),
+                lessonDTO("{\"title\": \"Two\", \"content\": \"B\", \"subjectId\": \"sub-999\"}"),
+                null,
+                lessonDTO("{\"title\": \"Four\", \"content\": \"D\", \"subjectId\": \"sub-1\"}"));
+
+        // Act
+        BulkResultDTO result = lessonService.createLessons(dtos);
+
+        // Assert - results in request order
+        try {
+            assertEquals(1, result.getCreated());
+            assertEquals(3, result.getFailed());
+            assertEquals(BulkItemResultDTO.Status.INVALID, result.getItems().get(0).getStatus());
+            assertEquals("Title is required", result.getItems().get(0).getMessage());
+            assertEquals(BulkItemResultDTO.Status.NOT_FOUND, result.getItems().get(1).getStatus());
+            assertEquals(BulkItemResultDTO.Status.INVALID, result.getItems().get(2).getStatus());
+            assertEquals(BulkItemResultDTO.Status.CREATED, result.getItems().get(3).getStatus());
+            assertEquals(3, result.getItems().get(3).getIndex());
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("_id")
+                    .is(new ObjectId(result.getItems().get(3).getId()))), Lesson.class);
+        }
+    }
+
+    @Test
+    void testCreateLessons_Empty_NoDatabaseCall() {
+        // Act
+        BulkResultDTO result = lessonService.createLessons(Collections.emptyList());
+
+        // Assert
+        assertEquals(0, result.getCreated());
+        assertTrue(result.getItems().isEmpty());
+        verify(subjectRepository, never()).findIdsByIdIn(any());
+    }
+
+    @Test
+    void testCreateLessons_TooMany_ThrowsException() {
+        // Arrange
+        List<LessonCreateDTO> dtos = Collections.nCopies(LessonService.MAX_BULK_SIZE + 1, validDTO);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.createLessons(dtos));
+        verify(subjectRepository, never()).findIdsByIdIn(any());
+    }
+
     // ==================== READ Tests ====================
 
     @Test
     void testGetAllLessons_Success() {
-        // Arrange
-        when(lessonRepository.findAll()).thenReturn(Arrays.asList(testLesson1, testLesson2));
+        // Arrange - page size + 1 is requested to detect a following page
+        when(lessonRepository.findAllByOrderByIdAsc(Limit.of(51))).thenReturn(Arrays.asList(testLesson1, testLesson2));
 
         // Act
-        List<Lesson> lessons = lessonService.getAllLessons();
+        CursorPage<Lesson> page = lessonService.getAllLessons(null, 50);
 
         // Assert
-        assertEquals(2, lessons.size());
-        assertEquals("Intro to Java", lessons.get(0).getTitle());
-        assertEquals("Advanced Java", lessons.get(1).getTitle());
-        verify(lessonRepository, times(1)).findAll();
+        assertEquals(2, page.getItems().size());
+        assertEquals("Intro to Java", page.getItems().get(0).getTitle());
+        assertEquals("Advanced Java", page.getItems().get(1).getTitle());
+        assertFalse(page.hasNext());
+        verify(lessonRepository, times(1)).findAllByOrderByIdAsc(Limit.of(51));
+        verify(lessonRepository, never()).findAll();
     }
 
     @Test
     void testGetAllLessons_EmptyList() {
         // Arrange
-        when(lessonRepository.findAll()).thenReturn(Collections.emptyList());
+        when(lessonRepository.findAllByOrderByIdAsc(Limit.of(51))).thenReturn(Collections.emptyList());
 
         // Act
-        List<Lesson> lessons = lessonService.getAllLessons();
+        CursorPage<Lesson> page = lessonService.getAllLessons(null, 50);
 
         // Assert
-        assertTrue(lessons.isEmpty());
-        verify(lessonRepository, times(1)).findAll();
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void testGetAllLessons_MoreThanLimit_ReturnsCursor() {
+        // Arrange
+        when(lessonRepository.findAllByOrderByIdAsc(Limit.of(2))).thenReturn(Arrays.asList(testLesson1, testLesson2));
+
+        // Act
+        CursorPage<Lesson> page = lessonService.getAllLessons(null, 1);
+
+        // Assert - only the requested amount, cursor points behind the last returned lesson
+        assertEquals(1, page.getItems().size());
+        assertEquals("lesson-1", page.getItems().get(0).getId());
+        assertTrue(page.hasNext());
+        assertEquals("lesson-1", CursorPage.decodeCursor(page.getNext()));
+    }
+
+    @Test
+    void testGetAllLessons_WithCursor_QueriesAfterLastId() {
+        // Arrange
+        String cursor = CursorPage.encodeCursor("lesson-1");
+        when(lessonRepository.findByIdGreaterThanOrderByIdAsc("lesson-1", Limit.of(2)))
+            .thenReturn(Arrays.asList(testLesson2));
+
+        // Act
+        CursorPage<Lesson> page = lessonService.getAllLessons(cursor, 1);
+
+        // Assert
+        assertEquals("lesson-2", page.getItems().get(0).getId());
+        assertFalse(page.hasNext());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -5})
+    void testGetAllLessons_InvalidLimit_UsesDefault(int limit) {
+        // Arrange
+        when(lessonRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        lessonService.getAllLessons(null, limit);
+
+        // Assert
+        verify(lessonRepository).findAllByOrderByIdAsc(Limit.of(LessonService.DEFAULT_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testGetAllLessons_LimitAboveMax_IsCapped() {
+        // Arrange
+        when(lessonRepository.findAllByOrderByIdAsc(any(Limit.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        lessonService.getAllLessons(null, 10_000);
+
+        // Assert
+        verify(lessonRepository).findAllByOrderByIdAsc(Limit.of(LessonService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testGetAllLessons_InvalidCursor_ThrowsException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.getAllLessons("%%%", 10));
+        verify(lessonRepository, never()).findByIdGreaterThanOrderByIdAsc(anyString(), any(Limit.class));
     }
 
     @Test
@@ -198,64 +405,412 @@ class LessonServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Lesson with ID unknown not found"));
+        // One round trip: the cache lookup before the method does not load the lesson itself
+        verify(lessonRepository, times(1)).findById("unknown");
     }
 
     @Test
     void testGetLessonsBySubject_Success() {
         // Arrange
-        when(lessonRepository.findBySubjectId("sub-1"))
+        when(lessonRepository.findBySubjectIdOrderByIdAsc("sub-1", Limit.of(51)))
             .thenReturn(Arrays.asList(testLesson1, testLesson2));
 
         // Act
-        List<Lesson> lessons = lessonService.getLessonsBySubject("sub-1");
+        CursorPage<Lesson> page = lessonService.getLessonsBySubject("sub-1", null, 50);
 
         // Assert
-        assertEquals(2, lessons.size());
-        assertEquals("sub-1", lessons.get(0).getSubjectId());
-        assertEquals("sub-1", lessons.get(1).getSubjectId());
-        verify(lessonRepository, times(1)).findBySubjectId("sub-1");
+        assertEquals(2, page.getItems().size());
+        assertEquals("sub-1", page.getItems().get(0).getSubjectId());
+        assertEquals("sub-1", page.getItems().get(1).getSubjectId());
+        assertFalse(page.hasNext());
+        verify(lessonRepository, times(1)).findBySubjectIdOrderByIdAsc("sub-1", Limit.of(51));
     }
 
     @Test
     void testGetLessonsBySubject_EmptyList() {
         // Arrange
-        when(lessonRepository.findBySubjectId("sub-999")).thenReturn(Collections.emptyList());
+        when(lessonRepository.findBySubjectIdOrderByIdAsc("sub-999", Limit.of(51))).thenReturn(Collections.emptyList());
 
         // Act
-        List<Lesson> lessons = lessonService.getLessonsBySubject("sub-999");
+        CursorPage<Lesson> page = lessonService.getLessonsBySubject("sub-999", null, 50);
 
         // Assert
-        assertTrue(lessons.isEmpty());
-        verify(lessonRepository, times(1)).findBySubjectId("sub-999");
+        assertTrue(page.getItems().isEmpty());
+        verify(lessonRepository, times(1)).findBySubjectIdOrderByIdAsc("sub-999", Limit.of(51));
     }
 
     @Test
     void testGetLessonsBySubject_NullSubjectId() {
         // Arrange
-        when(lessonRepository.findBySubjectId(null)).thenReturn(Collections.emptyList());
+        when(lessonRepository.findBySubjectIdOrderByIdAsc(null, Limit.of(51))).thenReturn(Collections.emptyList());
 
         // Act
-        List<Lesson> lessons = lessonService.getLessonsBySubject(null);
+        CursorPage<Lesson> page = lessonService.getLessonsBySubject(null, null, 50);
 
         // Assert
-        assertTrue(lessons.isEmpty());
+        assertTrue(page.getItems().isEmpty());
+    }
+
+    @Test
+    void testGetLessonsBySubject_WithCursor_Paginates() {
+        // Arrange
+        when(lessonRepository.findBySubjectIdOrderByIdAsc("sub-1", Limit.of(2)))
+            .thenReturn(Arrays.asList(testLesson1, testLesson2));
+        when(lessonRepository.findBySubjectIdAndIdGreaterThanOrderByIdAsc("sub-1", "lesson-1", Limit.of(2)))
+            .thenReturn(Arrays.asList(testLesson2));
+
+        // Act
+        CursorPage<Lesson> first = lessonService.getLessonsBySubject("sub-1", null, 1);
+        CursorPage<Lesson> second = lessonService.getLessonsBySubject("sub-1", first.getNext(), 1);
+
+        // Assert
+        assertEquals("lesson-1", first.getItems().get(0).getId());
+        assertEquals("lesson-2", second.getItems().get(0).getId());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testGetLessonSummariesBySubject_MapsProjection() {
+        // Arrange - the repository only returns the projected fields
+        when(lessonRepository.findSummariesBySubjectId("sub-1", Limit.of(51)))
+            .thenReturn(Arrays.asList(testLesson1, testLesson2));
+
+        // Act
+        CursorPage<LessonSummaryDTO> page = lessonService.getLessonSummariesBySubject("sub-1", null, 50);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("lesson-1", page.getItems().get(0).getId());
+        assertEquals("TEXT", page.getItems().get(0).getContentType());
+        assertFalse(page.getItems().get(0).isHasVideo());
+        assertTrue(page.getItems().get(1).isHasVideo());
+        assertFalse(page.hasNext());
+        verify(lessonRepository, never()).findBySubjectIdOrderByIdAsc(anyString(), any(Limit.class));
+    }
+
+    @Test
+    void testGetLessonSummariesBySubject_WithCursor() {
+        // Arrange
+        when(lessonRepository.findSummariesBySubjectId("sub-1", Limit.of(2)))
+            .thenReturn(Arrays.asList(testLesson1, testLesson2));
+        when(lessonRepository.findSummariesBySubjectIdAfter("sub-1", "lesson-1", Limit.of(2)))
+            .thenReturn(Arrays.asList(testLesson2));
+
+        // Act
+        CursorPage<LessonSummaryDTO> first = lessonService.getLessonSummariesBySubject("sub-1", null, 1);
+        CursorPage<LessonSummaryDTO> second = lessonService.getLessonSummariesBySubject("sub-1", first.getNext(), 1);
+
+        // Assert
+        assertEquals("lesson-1", first.getItems().get(0).getId());
+        assertTrue(first.hasNext());
+        assertEquals("lesson-2", second.getItems().get(0).getId());
+        assertFalse(second.hasNext());
+    }
+
+    // ==================== SEARCH Tests ====================
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "   " })
+    void testSearchLessons_EmptyQuery_ThrowsException(String query) {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.searchLessons(query, null, null, 10));
+        assertThrows(BadRequestException.class, () -> lessonService.searchLessons(null, null, null, 10));
+    }
+
+    @Test
+    void testSearchLessons_InvalidCursor_ThrowsException() {
+        // Arrange - a listing cursor (only an id) is not a search cursor
+        String listingCursor = CursorPage.encodeCursor("lesson-1");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> lessonService.searchLessons("java", null, listingCursor, 10));
+        assertThrows(BadRequestException.class,
+                () -> lessonService.searchLessons("java", null, CursorPage.encodeCursor("abc:lesson-1"), 10));
+    }
+
+    @Test
+    void testScoreCursor_RoundTrip() {
+        // Arrange
+        double score = 0.1 + 0.2; // not exactly representable in decimal
+
+        // Act
+        CursorPage.ScoreCursor cursor = CursorPage.decodeScoreCursor(CursorPage.encodeCursor(score, "lesson:1"));
+
+        // Assert - exactly the same score, the id may contain the separator
+        assertEquals(score, cursor.score());
+        assertEquals("lesson:1", cursor.lastId());
+    }
+
+    @Test
+    void testSearchAggregation_TextMatchFirst_ContentNotProjected() {
+        // Act
+        List<Document> pipeline = LessonService.searchAggregation("java", "sub-1", null, 11)
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        // Assert - $text only works in the first stage
+        assertEquals("java", pipeline.get(0).get("$match", Document.class)
+                .get("$text", Document.class).getString("$search"));
+        assertEquals("sub-1", pipeline.get(1).get("$match", Document.class).getString("subjectId"));
+        Document projection = pipeline.get(2).get("$project", Document.class);
+        assertEquals(new Document("$meta", "textScore"), projection.get("score"));
+        assertFalse(projection.containsKey("content"));
+        assertEquals(new Document("score", -1).append("_id", 1), pipeline.get(3).get("$sort", Document.class));
+        assertEquals(11L, ((Number) pipeline.get(4).get("$limit")).longValue());
+    }
+
+    @Test
+    void testSearchAggregation_WithCursor_ContinuesBehindLastHit() {
+        // Arrange
+        String lastId = new ObjectId().toHexString();
+
+        // Act
+        List<Document> pipeline = LessonService.searchAggregation("java", null,
+                new CursorPage.ScoreCursor(1.5, lastId), 11).toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        // Assert - no subject stage, the keyset condition follows the projection
+        assertEquals(5, pipeline.size());
+        String cursorMatch = pipeline.get(2).get("$match", Document.class).toJson();
+        assertTrue(cursorMatch.contains("\"$lt\": 1.5"), cursorMatch);
+        assertTrue(cursorMatch.contains(lastId), cursorMatch);
+    }
+
+    @Test
+    void testSearchLessons_RanksTitleMatchesFirst() {
+        // Arrange - "orbit" once in a title and once in a content
+        Lesson inTitle = new Lesson("Orbit basics", "Kepler laws", "search-sub");
+        Lesson inContent = new Lesson("Gravity", "Every orbit is an ellipse", "search-sub");
+        Lesson other = new Lesson("Stars", "Fusion", "search-sub");
+        mongoTemplate.insertAll(List.of(inTitle, inContent, other));
+
+        try {
+            // Act
+            CursorPage<LessonSearchHitDTO> firstPage;
+            try {
+                firstPage = lessonService.searchLessons("orbit", "search-sub", null, 1);
+            } catch (DataAccessException e) {
+                // In-memory MongoDB stand-ins do not implement $text, a real server is needed here
+                assumeTrue(false, "$text not supported by this MongoDB server: " + e.getMessage());
+                return;
+            }
+            CursorPage<LessonSearchHitDTO> secondPage = lessonService.searchLessons("orbit", "search-sub", firstPage.getNext(), 1);
+
+            // Assert
+            assertEquals(inTitle.getId(), firstPage.getItems().get(0).getId());
+            assertEquals(inContent.getId(), secondPage.getItems().get(0).getId());
+            assertTrue(firstPage.getItems().get(0).getScore() > secondPage.getItems().get(0).getScore());
+            assertFalse(secondPage.hasNext());
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("subjectId").is("search-sub")), Lesson.class);
+        }
+    }
+
+    // ==================== SUGGEST Tests ====================
+    // Served from the in-process index, which the writes of LessonService keep up to date
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   "})
+    void testSuggestLessons_EmptyQuery_ThrowsException(String query) {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.suggestLessons(query, null, 10));
+    }
+
+    @Test
+    void testSuggestLessons_CreatedLessonIsFoundByPrefix() {
+        // Arrange
+        when(validDTO.getTitle()).thenReturn("Cyclotron basics");
+        when(subjectRepository.existsById("sub-1")).thenReturn(true);
+        when(lessonRepository.save(any(Lesson.class))).thenAnswer(invocation -> {
+            Lesson saved = invocation.getArgument(0);
+            saved.setId("lesson-1");
+            saved.setVersion(0L);
+            return saved;
+        });
+        lessonService.createLesson(validDTO);
+
+        // Act
+        List<LessonSearchHitDTO> hits = lessonService.suggestLessons("cyclo", null, 10);
+
+        // Assert
+        assertEquals(1, hits.size());
+        assertEquals("lesson-1", hits.get(0).getId());
+        assertEquals("Cyclotron basics", hits.get(0).getTitle());
+    }
+
+    @Test
+    void testSuggestLessons_UpdatedLessonIsFoundByNewTitle() {
+        // Arrange
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Synchrotron radiation");
+
+        // Act
+        lessonService.updateLesson("lesson-1", updateDTO);
+
+        // Assert
+        List<LessonSearchHitDTO> hits = lessonService.suggestLessons("synchrotron radi", null, 10);
+        assertEquals(1, hits.size());
+        assertEquals("lesson-1", hits.get(0).getId());
+        assertTrue(lessonService.suggestLessons("intro java ", null, 10).stream()
+                .noneMatch(hit -> "lesson-1".equals(hit.getId())));
+    }
+
+    @Test
+    void testSuggestLessons_DeletedLessonIsNotFound() {
+        // Arrange
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Betatron");
+        lessonService.updateLesson("lesson-1", updateDTO);
+
+        // Act
+        lessonService.deleteLesson("lesson-1");
+
+        // Assert
+        assertTrue(lessonService.suggestLessons("betatron", null, 10).isEmpty());
+    }
+
+    @Test
+    void testSuggestLessons_IndexLoading_ServiceUnavailable() {
+        // Arrange - the startup load has not finished, the index only knows part of the lessons
+        lessonIndex.beginLoad();
+        try {
+            // Act
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> lessonService.suggestLessons("java", null, 10));
+
+            // Assert
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        } finally {
+            lessonIndex.endLoad();
+        }
+    }
+
+    @Test
+    void testSuggestLessons_IndexDisabled_UsesTextSearch() {
+        // Arrange - no loader, the index never becomes complete
+        Lesson lesson = new Lesson("Nebula basics", "Gas and dust", "suggest-sub");
+        mongoTemplate.insert(lesson);
+        ReflectionTestUtils.setField(lessonService, "lessonIndexEnabled", false);
+        try {
+            // Act
+            List<LessonSearchHitDTO> hits;
+            try {
+                hits = lessonService.suggestLessons("nebula", "suggest-sub", 10);
+            } catch (DataAccessException e) {
+                // In-memory MongoDB stand-ins do not implement $text, a real server is needed here
+                assumeTrue(false, "$text not supported by this MongoDB server: " + e.getMessage());
+                return;
+            }
+
+            // Assert - found in MongoDB, although the index does not have it
+            assertEquals(List.of(lesson.getId()), hits.stream().map(LessonSearchHitDTO::getId).toList());
+        } finally {
+            ReflectionTestUtils.setField(lessonService, "lessonIndexEnabled", true);
+            mongoTemplate.remove(Query.query(Criteria.where("subjectId").is("suggest-sub")), Lesson.class);
+        }
+    }
+
+    @Test
+    void testCreateLesson_IndexDisabled_NotIndexed() {
+        // Arrange
+        when(validDTO.getTitle()).thenReturn("Magnetar basics");
+        when(subjectRepository.existsById("sub-1")).thenReturn(true);
+        when(lessonRepository.save(any(Lesson.class))).thenAnswer(invocation -> {
+            Lesson saved = invocation.getArgument(0);
+            saved.setId("lesson-1");
+            saved.setVersion(0L);
+            return saved;
+        });
+        ReflectionTestUtils.setField(lessonService, "lessonIndexEnabled", false);
+        try {
+            // Act
+            lessonService.createLesson(validDTO);
+        } finally {
+            ReflectionTestUtils.setField(lessonService, "lessonIndexEnabled", true);
+        }
+
+        // Assert - nothing reads a disabled index, so the write skipped it
+        assertTrue(lessonIndex.search("magnetar", null, 10).isEmpty());
+    }
+
+    // ==================== EXPORT Tests ====================
+
+    @Test
+    void testExportLessons_WritesOneLinePerLesson() throws IOException {
+        // Arrange
+        AtomicBoolean cursorClosed = new AtomicBoolean(false);
+        when(lessonRepository.streamAllBy())
+            .thenReturn(Stream.of(testLesson1, testLesson2).onClose(() -> cursorClosed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        lessonService.exportLessons(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length); // two lessons + empty string after the trailing newline
+        assertTrue(lines[0].contains("\"id\":\"lesson-1\""));
+        assertTrue(lines[1].contains("\"title\":\"Advanced Java\""));
+        assertEquals("", lines[2]);
+        assertTrue(cursorClosed.get(), "Cursor should be closed after the export");
+        verify(lessonRepository, never()).findAll();
+    }
+
+    @Test
+    void testExportLessons_EmptyCollection_WritesNothing() throws IOException {
+        // Arrange
+        when(lessonRepository.streamAllBy()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        lessonService.exportLessons(out);
+
+        // Assert
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testExportLessons_ClientDisconnects_ClosesCursor() {
+        // Arrange - the output fails like an aborted HTTP connection
+        AtomicBoolean cursorClosed = new AtomicBoolean(false);
+        when(lessonRepository.streamAllBy())
+            .thenReturn(Stream.of(testLesson1, testLesson2).onClose(() -> cursorClosed.set(true)));
+        OutputStream brokenOut = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> lessonService.exportLessons(brokenOut));
+        assertTrue(cursorClosed.get(), "Cursor should be closed when the client disconnects");
     }
 
     // ==================== UPDATE Tests ====================
+    // The update goes through MongoTemplate (findAndModify), so these tests work on real documents
+
+    private void storeLesson(Lesson lesson) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(lesson.getId())), Lesson.class);
+        mongoTemplate.insert(lesson);
+    }
+
+    private Lesson storedLesson(String id) {
+        return mongoTemplate.findById(id, Lesson.class);
+    }
 
     @Test
     void testUpdateLesson_AllFields_Success() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
         when(updateDTO.getTitle()).thenReturn("Updated Title");
         when(updateDTO.getContent()).thenReturn("Updated Content");
         when(updateDTO.getSubjectId()).thenReturn("sub-2");
         when(updateDTO.getVideoUrl()).thenReturn("https://new-url.com");
         when(updateDTO.getContentType()).thenReturn("VIDEO");
-
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
         when(subjectRepository.existsById("sub-2")).thenReturn(true);
-        when(lessonRepository.save(any(Lesson.class))).thenAnswer(i -> i.getArgument(0));
 
         // Act
         Lesson updated = lessonService.updateLesson("lesson-1", updateDTO);
@@ -266,20 +821,19 @@ class LessonServiceTest {
         assertEquals("sub-2", updated.getSubjectId());
         assertEquals("https://new-url.com", updated.getVideoUrl());
         assertEquals("VIDEO", updated.getContentType());
-        verify(lessonRepository, times(1)).save(any(Lesson.class));
+        assertEquals(updated, storedLesson("lesson-1"));
+        verify(lessonRepository, never()).save(any(Lesson.class));
     }
 
     @Test
     void testUpdateLesson_PartialUpdate_OnlyTitle() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
         when(updateDTO.getTitle()).thenReturn("New Title");
         when(updateDTO.getContent()).thenReturn(null); // Not updating
         when(updateDTO.getSubjectId()).thenReturn(null); // Not updating
 
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
-        when(lessonRepository.save(any(Lesson.class))).thenAnswer(i -> i.getArgument(0));
-
         // Act
         Lesson updated = lessonService.updateLesson("lesson-1", updateDTO);
 
@@ -287,18 +841,34 @@ class LessonServiceTest {
         assertEquals("New Title", updated.getTitle());
         assertEquals("Basic concepts", updated.getContent()); // Unchanged
         assertEquals("sub-1", updated.getSubjectId()); // Unchanged
+        assertEquals("TEXT", updated.getContentType()); // Unchanged
+        verify(subjectRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void testUpdateLesson_SameSubject_NoSubjectCheck() {
+        // Arrange - the client sends the full lesson, the subject does not change
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("New Title");
+        when(updateDTO.getSubjectId()).thenReturn("sub-1");
+
+        // Act
+        Lesson updated = lessonService.updateLesson("lesson-1", updateDTO);
+
+        // Assert - one findAndModify, no existsById round trip
+        assertEquals("New Title", updated.getTitle());
+        verify(subjectRepository, never()).existsById(anyString());
     }
 
     @Test
     void testUpdateLesson_BlankTitle_NotUpdated() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
         when(updateDTO.getTitle()).thenReturn("   "); // Blank
         when(updateDTO.getContent()).thenReturn("New Content");
 
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
-        when(lessonRepository.save(any(Lesson.class))).thenAnswer(i -> i.getArgument(0));
-
         // Act
         Lesson updated = lessonService.updateLesson("lesson-1", updateDTO);
 
@@ -310,11 +880,10 @@ class LessonServiceTest {
     @Test
     void testUpdateLesson_NewSubjectNotFound_ThrowsException() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
         when(updateDTO.getTitle()).thenReturn("New Title");
         when(updateDTO.getSubjectId()).thenReturn("invalid-subject");
-
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
         when(subjectRepository.existsById("invalid-subject")).thenReturn(false);
 
         // Act & Assert
@@ -324,14 +893,14 @@ class LessonServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Subject with ID invalid-subject not found"));
-        verify(lessonRepository, never()).save(any(Lesson.class));
+        assertEquals("Intro to Java", storedLesson("lesson-1").getTitle()); // Not changed
     }
 
     @Test
     void testUpdateLesson_LessonNotFound_ThrowsException() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
-        when(lessonRepository.findById("unknown")).thenReturn(Optional.empty());
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("New Title");
 
         // Act & Assert
         NoSuchElementException exception = assertThrows(
@@ -340,47 +909,114 @@ class LessonServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Lesson with ID unknown not found"));
-        verify(lessonRepository, never()).save(any(Lesson.class));
+        assertNull(storedLesson("unknown"));
+    }
+
+    @Test
+    void testUpdateLesson_LessonNotFound_ExistingNewSubject_ThrowsException() {
+        // Arrange
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getSubjectId()).thenReturn("sub-2");
+        when(subjectRepository.existsById("sub-2")).thenReturn(true);
+
+        // Act & Assert
+        NoSuchElementException exception = assertThrows(
+            NoSuchElementException.class,
+            () -> lessonService.updateLesson("unknown", updateDTO)
+        );
+
+        assertTrue(exception.getMessage().contains("Lesson with ID unknown not found"));
     }
 
     @Test
     void testUpdateLesson_EmptyVideoUrl() {
         // Arrange
-        LessonCreateDTO updateDTO = mock(LessonCreateDTO.class);
+        storeLesson(testLesson2);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
         when(updateDTO.getTitle()).thenReturn("Title");
         when(updateDTO.getVideoUrl()).thenReturn(""); // Empty string
 
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
-        when(lessonRepository.save(any(Lesson.class))).thenAnswer(i -> i.getArgument(0));
-
         // Act
-        Lesson updated = lessonService.updateLesson("lesson-1", updateDTO);
+        Lesson updated = lessonService.updateLesson("lesson-2", updateDTO);
 
         // Assert - Empty string is allowed (not null)
         assertEquals("", updated.getVideoUrl());
     }
 
+    @Test
+    void testUpdateLesson_ExpectedVersion_IncrementsVersion() {
+        // Arrange - insert starts the version at 0
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("New Title");
+
+        // Act
+        Lesson updated = lessonService.updateLesson("lesson-1", updateDTO, 0L);
+
+        // Assert
+        assertEquals("New Title", updated.getTitle());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(1L, storedLesson("lesson-1").getVersion());
+    }
+
+    @Test
+    void testUpdateLesson_StaleVersion_ThrowsException() {
+        // Arrange - someone else updated the lesson after the client read version 0
+        storeLesson(testLesson1);
+        LessonUpdateDTO otherEdit = mock(LessonUpdateDTO.class);
+        when(otherEdit.getContent()).thenReturn("Other edit");
+        lessonService.updateLesson("lesson-1", otherEdit);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("New Title");
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> lessonService.updateLesson("lesson-1", updateDTO, 0L));
+        assertEquals("Intro to Java", storedLesson("lesson-1").getTitle()); // Not overwritten
+        assertEquals("Other edit", storedLesson("lesson-1").getContent());
+    }
+
+    @Test
+    void testUpdateLesson_StaleVersion_SubjectChange_ThrowsException() {
+        // Arrange
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getSubjectId()).thenReturn("sub-2");
+        when(subjectRepository.existsById("sub-2")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> lessonService.updateLesson("lesson-1", updateDTO, 5L));
+        assertEquals("sub-1", storedLesson("lesson-1").getSubjectId());
+    }
+
+    @Test
+    void testUpdateLesson_ExpectedVersion_LessonNotFound_ThrowsException() {
+        // Arrange
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("New Title");
+
+        // Act & Assert - a missing lesson stays a 404, not a 412
+        assertThrows(NoSuchElementException.class, () -> lessonService.updateLesson("unknown", updateDTO, 0L));
+    }
+
     // ==================== DELETE Tests ====================
 
     @Test
     void testDeleteLesson_Success() {
         // Arrange
-        when(lessonRepository.existsById("lesson-1")).thenReturn(true);
-        doNothing().when(lessonRepository).deleteById("lesson-1");
+        storeLesson(testLesson1);
 
         // Act
         assertDoesNotThrow(() -> lessonService.deleteLesson("lesson-1"));
 
-        // Assert
-        verify(lessonRepository, times(1)).existsById("lesson-1");
-        verify(lessonRepository, times(1)).deleteById("lesson-1");
+        // Assert - one deleteOne, no existence check
+        assertNull(storedLesson("lesson-1"));
+        verify(lessonRepository, never()).existsById(anyString());
     }
 
     @Test
     void testDeleteLesson_NotFound_ThrowsException() {
-        // Arrange
-        when(lessonRepository.existsById("unknown")).thenReturn(false);
-
         // Act & Assert
         NoSuchElementException exception = assertThrows(
             NoSuchElementException.class,
@@ -388,17 +1024,121 @@ class LessonServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Lesson with ID unknown not found"));
-        verify(lessonRepository, never()).deleteById(anyString());
     }
 
     @Test
-    void testDeleteLesson_NullId_ThrowsException() {
+    void testDeleteLesson_SecondDelete_ThrowsException() {
         // Arrange
-        when(lessonRepository.existsById(null)).thenReturn(false);
+        storeLesson(testLesson1);
+        lessonService.deleteLesson("lesson-1");
+
+        // Act & Assert - deletedCount is 0 the second time
+        assertThrows(NoSuchElementException.class, () -> lessonService.deleteLesson("lesson-1"));
+    }
 
+    @Test
+    void testDeleteLesson_NullId_ThrowsException() {
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> lessonService.deleteLesson(null));
-        verify(lessonRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testDeleteLessons_DeletesKnownIds() {
+        // Arrange
+        storeLesson(testLesson1);
+        storeLesson(testLesson2);
+
+        // Act
+        long deleted = lessonService.deleteLessons(List.of("lesson-1", "lesson-2", "unknown"));
+
+        // Assert - unknown ids are skipped
+        assertEquals(2, deleted);
+        assertNull(storedLesson("lesson-1"));
+        assertNull(storedLesson("lesson-2"));
+    }
+
+    @Test
+    void testDeleteLessons_EmptyIds_ThrowsException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.deleteLessons(List.of()));
+    }
+
+    @Test
+    void testDeleteLessons_TooManyIds_ThrowsException() {
+        // Arrange
+        List<String> ids = Collections.nCopies(BatchDeletes.MAX_IDS + 1, "lesson-1");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> lessonService.deleteLessons(ids));
+    }
+
+    // ==================== Cache Tests ====================
+
+    @Test
+    void testGetLessonById_IsCached() {
+        // Arrange
+        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
+
+        // Act
+        Lesson first = lessonService.getLessonById("lesson-1");
+        Lesson second = lessonService.getLessonById("lesson-1");
+
+        // Assert - only the first call goes to the database
+        assertSame(first, second);
+        verify(lessonRepository, times(1)).findById("lesson-1");
+    }
+
+    @Test
+    void testUpdateLesson_UpdatesCachedLesson() {
+        // Arrange
+        storeLesson(testLesson1);
+        LessonUpdateDTO updateDTO = mock(LessonUpdateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Updated Title");
+        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
+        lessonService.getLessonById("lesson-1");
+
+        // Act
+        lessonService.updateLesson("lesson-1", updateDTO);
+        Lesson cached = lessonService.getLessonById("lesson-1");
+
+        // Assert - the updated lesson replaces the cached one, no reload
+        assertEquals("Updated Title", cached.getTitle());
+        verify(lessonRepository, times(1)).findById("lesson-1");
+    }
+
+    @Test
+    void testDeleteLessons_EvictsCachedLessons() {
+        // Arrange
+        storeLesson(testLesson1);
+        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
+        lessonService.getLessonById("lesson-1");
+
+        // Act
+        lessonService.deleteLessons(List.of("lesson-1"));
+
+        // Assert
+        CaffeineCache lessonCache = (CaffeineCache) cacheManager.getCache(CacheConfig.LESSON_BY_ID);
+        assertNull(lessonCache.getNativeCache().getIfPresent("lesson-1"));
+    }
+
+    @Test
+    void testDeleteLesson_EvictsCachedLesson() {
+        // Arrange
+        storeLesson(testLesson1);
+        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(testLesson1));
+        lessonService.getLessonById("lesson-1");
+
+        // Act
+        lessonService.deleteLesson("lesson-1");
+
+        // Assert - check the native cache, Cache.get would load the lesson again through the cache loader
+        CaffeineCache lessonCache = (CaffeineCache) cacheManager.getCache(CacheConfig.LESSON_BY_ID);
+        assertNull(lessonCache.getNativeCache().getIfPresent("lesson-1"));
+    }
+
+    // LessonCreateDTO has no setters, real instances (needed for bean validation) come from JSON
+    private LessonCreateDTO lessonDTO(String json) throws Exception {
+        return objectMapper.readValue(json, LessonCreateDTO.class);
     }
 
     // ==================== Integration/Edge Cases ====================
@@ -428,7 +1168,7 @@ class LessonServiceTest {
     @Test
     void testUpdateLesson_NoChanges() {
         // Arrange - All DTO fields are null or blank
-        LessonCreateDTO noChangeDTO = mock(LessonCreateDTO.class);
+        LessonUpdateDTO noChangeDTO = mock(LessonUpdateDTO.class);
         when(noChangeDTO.getTitle()).thenReturn(null);
         when(noChangeDTO.getContent()).thenReturn(null);
         when(noChangeDTO.getSubjectId()).thenReturn(null);
@@ -436,10 +1176,9 @@ class LessonServiceTest {
         when(noChangeDTO.getContentType()).thenReturn(null);
 
         Lesson originalLesson = new Lesson("Original", "Content", "sub-1");
+        originalLesson.setId("lesson-1");
         originalLesson.setContentType("TEXT");
-
-        when(lessonRepository.findById("lesson-1")).thenReturn(Optional.of(originalLesson));
-        when(lessonRepository.save(any(Lesson.class))).thenAnswer(i -> i.getArgument(0));
+        storeLesson(originalLesson);
 
         // Act
         Lesson updated = lessonService.updateLesson("lesson-1", noChangeDTO);
@@ -0,0 +1,62 @@
+package ch.zhaw.stellarcompass.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class OptimisticRetryTest {
+
+    @Test
+    void testRetry_SucceedsAfterConflicts() {
+        // Arrange - two lost races, then the write goes through
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = OptimisticRetry.retry(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("changed");
+            }
+            return "saved";
+        });
+
+        // Assert
+        assertEquals("saved", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testRetry_GivesUpAfterAttempts() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> OptimisticRetry.retry(2, () -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("changed");
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testRetry_OtherExceptions_NotRetried() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> OptimisticRetry.retry(() -> {
+            calls.incrementAndGet();
+            throw new DuplicateKeyException("duplicate");
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRetry_NoAttempts_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> OptimisticRetry.retry(0, () -> "never"));
+    }
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +16,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.ActiveProfiles;
 
+import ch.zhaw.stellarcompass.config.CacheConfig;
 import ch.zhaw.stellarcompass.dto.SubjectCreateDTO;
+import ch.zhaw.stellarcompass.model.Lesson;
 import ch.zhaw.stellarcompass.model.Subject;
 import ch.zhaw.stellarcompass.repository.SubjectRepository;
 
@@ -31,6 +40,12 @@ class SubjectServiceTest {
     @MockBean
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private Subject testMath;
     private Subject testCS;
     private Subject testPhysics;
@@ -38,6 +53,9 @@ class SubjectServiceTest {
 
     @BeforeEach
     void setUp() {
+        // The Spring context (and its caches) is shared between tests, start every test with empty caches
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
         // Setup test subjects
         testMath = new Subject("Mathematik", "Grundlagen der Algebra");
         testMath.setId("math-123");
@@ -328,6 +346,58 @@ class SubjectServiceTest {
         assertTrue(updated.getDescription().contains("€"));
     }
 
+    @Test
+    void testUpdateSubject_ExpectedVersion_Success() {
+        // Arrange
+        testMath.setVersion(3L);
+        SubjectCreateDTO updateDTO = mock(SubjectCreateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Updated Title");
+        when(updateDTO.getDescription()).thenReturn("Updated Description");
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+        when(subjectRepository.save(any(Subject.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        Subject updated = subjectService.updateSubject("math-123", updateDTO, 3L);
+
+        // Assert
+        assertEquals("Updated Title", updated.getTitle());
+        verify(subjectRepository, times(1)).save(any(Subject.class));
+    }
+
+    @Test
+    void testUpdateSubject_StaleVersion_FailsFast() {
+        // Arrange - the client read version 2, the subject is at version 3
+        testMath.setVersion(3L);
+        SubjectCreateDTO updateDTO = mock(SubjectCreateDTO.class);
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> subjectService.updateSubject("math-123", updateDTO, 2L));
+        verify(subjectRepository, times(1)).findById("math-123");
+        verify(subjectRepository, never()).save(any(Subject.class));
+    }
+
+    @Test
+    void testUpdateSubject_ConcurrentSave_IsRetried() {
+        // Arrange - the versioned save loses against another writer once
+        SubjectCreateDTO updateDTO = mock(SubjectCreateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Updated Title");
+        when(updateDTO.getDescription()).thenReturn("Updated Description");
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+        when(subjectRepository.save(any(Subject.class)))
+                .thenThrow(new OptimisticLockingFailureException("changed"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        Subject updated = subjectService.updateSubject("math-123", updateDTO);
+
+        // Assert - read and written again
+        assertEquals("Updated Title", updated.getTitle());
+        verify(subjectRepository, times(2)).findById("math-123");
+        verify(subjectRepository, times(2)).save(any(Subject.class));
+    }
+
     // ==================== DELETE Tests ====================
 
     @Test
@@ -383,6 +453,45 @@ class SubjectServiceTest {
         verify(subjectRepository, times(1)).deleteById("physics-789");
     }
 
+    @Test
+    void testDeleteSubject_RemovesItsLessons() {
+        // Arrange - lessons are real documents, the subject repository is mocked
+        mongoTemplate.insert(new Lesson("Cascade 1", "Content", "cascade-math"));
+        mongoTemplate.insert(new Lesson("Cascade 2", "Content", "cascade-math"));
+        mongoTemplate.insert(new Lesson("Cascade 3", "Content", "cascade-cs"));
+        Lesson cached = new Lesson("Cached", "Content", "cascade-math");
+        cacheManager.getCache(CacheConfig.LESSON_BY_ID).put("cached-id", cached);
+
+        try {
+            // Act
+            subjectService.deleteSubject("cascade-math");
+
+            // Assert
+            verify(subjectRepository, times(1)).deleteById("cascade-math");
+            assertEquals(0, mongoTemplate.count(Query.query(Criteria.where("subjectId").is("cascade-math")), Lesson.class));
+            assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("subjectId").is("cascade-cs")), Lesson.class));
+            assertNull(cacheManager.getCache(CacheConfig.LESSON_BY_ID).get("cached-id"));
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("subjectId").in("cascade-math", "cascade-cs")), Lesson.class);
+        }
+    }
+
+    @Test
+    void testDeleteSubject_NullId_KeepsLessons() {
+        // Arrange - a lesson document without subjectId would match { subjectId: null }
+        mongoTemplate.getCollection("lessons").insertOne(new org.bson.Document("title", "No subject"));
+
+        try {
+            // Act
+            subjectService.deleteSubject(null);
+
+            // Assert
+            assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("title").is("No subject")), Lesson.class));
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("title").is("No subject")), Lesson.class);
+        }
+    }
+
     // ==================== Integration Tests ====================
 
     @Test
@@ -509,7 +618,94 @@ void testCreateSubject_BothNull_ThrowsException() {
         subjectService.getAllSubjects();
         subjectService.getAllSubjects();
 
+        // Assert - the catalog is cached, only the first call hits the database
+        verify(subjectRepository, times(1)).findAll();
+    }
+
+    // ==================== Cache Tests ====================
+
+    @Test
+    void testGetSubjectById_Success_IsCached() {
+        // Arrange
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+
+        // Act
+        Subject first = subjectService.getSubjectById("math-123");
+        Subject second = subjectService.getSubjectById("math-123");
+
+        // Assert
+        assertEquals("Mathematik", first.getTitle());
+        assertSame(first, second);
+        verify(subjectRepository, times(1)).findById("math-123");
+    }
+
+    @Test
+    void testGetSubjectById_NotFound_IsNotCached() {
+        // Arrange
+        when(subjectRepository.findById("unknown")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> subjectService.getSubjectById("unknown"));
+        assertThrows(NoSuchElementException.class, () -> subjectService.getSubjectById("unknown"));
+        verify(subjectRepository, times(2)).findById("unknown");
+    }
+
+    @Test
+    void testCreateSubject_EvictsCatalog() {
+        // Arrange
+        when(subjectRepository.findAll()).thenReturn(Arrays.asList(testMath));
+        when(subjectRepository.save(any(Subject.class))).thenAnswer(invocation -> {
+            Subject saved = invocation.getArgument(0);
+            saved.setId("new-id");
+            return saved;
+        });
+        subjectService.getAllSubjects();
+
+        // Act
+        subjectService.createSubject(validDTO);
+        subjectService.getAllSubjects();
+
+        // Assert - catalog reloaded, new subject available by id without a database call
+        verify(subjectRepository, times(2)).findAll();
+        assertEquals("Test Subject", subjectService.getSubjectById("new-id").getTitle());
+        verify(subjectRepository, never()).findById("new-id");
+    }
+
+    @Test
+    void testUpdateSubject_EvictsCatalogAndRefreshesSubject() {
+        // Arrange
+        SubjectCreateDTO updateDTO = mock(SubjectCreateDTO.class);
+        when(updateDTO.getTitle()).thenReturn("Mathematik II");
+        when(updateDTO.getDescription()).thenReturn("Analysis");
+        when(subjectRepository.findAll()).thenReturn(Arrays.asList(testMath));
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+        when(subjectRepository.save(any(Subject.class))).thenAnswer(i -> i.getArgument(0));
+        subjectService.getAllSubjects();
+        subjectService.getSubjectById("math-123");
+
+        // Act
+        subjectService.updateSubject("math-123", updateDTO);
+
+        // Assert
+        assertEquals("Mathematik II", subjectService.getSubjectById("math-123").getTitle());
+        subjectService.getAllSubjects();
+        verify(subjectRepository, times(2)).findAll();
+        verify(subjectRepository, times(2)).findById("math-123"); // getSubjectById + updateSubject
+    }
+
+    @Test
+    void testDeleteSubject_EvictsCatalogAndSubject() {
+        // Arrange
+        when(subjectRepository.findAll()).thenReturn(Arrays.asList(testMath));
+        when(subjectRepository.findById("math-123")).thenReturn(Optional.of(testMath));
+        subjectService.getAllSubjects();
+        subjectService.getSubjectById("math-123");
+
+        // Act
+        subjectService.deleteSubject("math-123");
+
         // Assert
-        verify(subjectRepository, times(3)).findAll();
+        assertNull(cacheManager.getCache(CacheConfig.SUBJECT_BY_ID).get("math-123"));
+        assertNull(cacheManager.getCache(CacheConfig.SUBJECTS).get(SimpleKey.EMPTY));
     }
 }
\ No newline at end of file
@@ -5,26 +5,41 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import ch.zhaw.stellarcompass.dto.BulkItemResultDTO;
 import ch.zhaw.stellarcompass.dto.UserCreateDTO;
+import ch.zhaw.stellarcompass.dto.UserImportResultDTO;
+import ch.zhaw.stellarcompass.exception.BadRequestException;
 import ch.zhaw.stellarcompass.model.User;
 import ch.zhaw.stellarcompass.model.UserRole;
 import ch.zhaw.stellarcompass.repository.UserRepository;
+import ch.zhaw.stellarcompass.security.UserRolesAuthentication;
 
 @SpringBootTest
 class UserServiceTest {
@@ -35,6 +50,9 @@ class UserServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private User testStudent;
     private User testMentor;
     private User testAdmin;
@@ -42,6 +60,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Imports write through MongoTemplate (not the mocked repository)
+        mongoTemplate.remove(Query.query(Criteria.where("email").regex("^import")), User.class);
+
         // Setup test users
         testStudent = new User("student@service.com", "Test Student", UserRole.STUDENT);
         testStudent.setId("student-id");
@@ -116,6 +137,103 @@ class UserServiceTest {
         assertEquals(UserRole.MENTOR, mentorUser.getRole());
     }
 
+    // ==================== IMPORT Tests ====================
+
+    @Test
+    void testImportUsers_Csv_AllCreated() throws Exception {
+        // Arrange
+        String csv = "email,name,role,mentorId\n"
+                + "import1@stellar.com,Student One,STUDENT,mentor-1\n"
+                + "import2@stellar.com,Student Two,STUDENT,\n"
+                + "import3@stellar.com,Mentor Three,MENTOR,\n";
+
+        // Act
+        UserImportResultDTO result = userService.importUsers(stream(csv), UserService.TEXT_CSV);
+
+        // Assert
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        User stored = mongoTemplate.findOne(Query.query(Criteria.where("email").is("import1@stellar.com")), User.class);
+        assertEquals(UserRole.STUDENT, stored.getRole());
+        assertEquals("mentor-1", stored.getMentorId());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testImportUsers_DuplicatesAndInvalidRows_ReportedPerRow() throws Exception {
+        // Arrange - row 1 repeats the email of row 0, row 2 has an unknown role, row 3 has no name
+        String csv = "email,name,role\n"
+                + "import1@stellar.com,Student One,STUDENT\n"
+                + "import1@stellar.com,Student Again,STUDENT\n"
+                + "import2@stellar.com,Student Two,TEACHER\n"
+                + "import3@stellar.com,,STUDENT\n"
+                + "import4@stellar.com,Student Four,STUDENT\n";
+
+        // Act
+        UserImportResultDTO result = userService.importUsers(stream(csv), UserService.TEXT_CSV);
+
+        // Assert - the valid rows are imported anyway
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertFalse(result.isErrorsTruncated());
+        Map<Integer, BulkItemResultDTO.Status> statusByRow = result.getErrors().stream()
+                .collect(Collectors.toMap(BulkItemResultDTO::getIndex, BulkItemResultDTO::getStatus));
+        assertEquals(Map.of(
+                1, BulkItemResultDTO.Status.DUPLICATE,
+                2, BulkItemResultDTO.Status.INVALID,
+                3, BulkItemResultDTO.Status.INVALID), statusByRow);
+    }
+
+    @Test
+    void testImportUsers_MoreThanOneBatch() throws Exception {
+        // Arrange
+        StringBuilder csv = new StringBuilder("email,name,role\n");
+        for (int i = 0; i < UserService.IMPORT_BATCH_SIZE + 5; i++) {
+            csv.append("import").append(i).append("@stellar.com,Student ").append(i).append(",STUDENT\n");
+        }
+
+        // Act
+        UserImportResultDTO result = userService.importUsers(stream(csv.toString()), UserService.TEXT_CSV);
+
+        // Assert
+        assertEquals(UserService.IMPORT_BATCH_SIZE + 5, result.getCreated());
+        assertEquals(UserService.IMPORT_BATCH_SIZE + 5,
+                mongoTemplate.count(Query.query(Criteria.where("email").regex("^import")), User.class));
+    }
+
+    @Test
+    void testImportUsers_JsonArray() throws Exception {
+        // Arrange
+        String json = "[{\"email\": \"import1@stellar.com\", \"name\": \"One\", \"role\": \"STUDENT\"},"
+                + " {\"email\": \"import2@stellar.com\", \"name\": \"Two\", \"role\": \"ADMIN\"}]";
+
+        // Act
+        UserImportResultDTO result = userService.importUsers(stream(json), MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getFailed());
+    }
+
+    @Test
+    void testImportUsers_MalformedJson_StopsAtRecord() throws Exception {
+        // Arrange - the second element is broken
+        String json = "[{\"email\": \"import1@stellar.com\", \"name\": \"One\", \"role\": \"STUDENT\"}, {\"email\": ]";
+
+        // Act
+        UserImportResultDTO result = userService.importUsers(stream(json), MediaType.APPLICATION_JSON);
+
+        // Assert - records before the broken one are imported
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed input"));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
     // ==================== READ Tests ====================
 
     @Test
@@ -305,27 +423,69 @@ class UserServiceTest {
         assertEquals(UserRole.ADMIN, updated.getRole());
     }
 
+    @Test
+    void testUpdateUser_StaleVersion_FailsFast() {
+        // Arrange - the client read version 0, the user is at version 1
+        testStudent.setVersion(1L);
+        UserCreateDTO updateDTO = mock(UserCreateDTO.class);
+        when(userRepository.findById("student-id")).thenReturn(Optional.of(testStudent));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> userService.updateUser("student-id", updateDTO, 0L));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testUpdateUser_ConcurrentSave_IsRetried() {
+        // Arrange - the versioned save loses against another writer once
+        UserCreateDTO updateDTO = mock(UserCreateDTO.class);
+        when(updateDTO.getEmail()).thenReturn("student@service.com");
+        when(updateDTO.getName()).thenReturn("Updated Name");
+        when(updateDTO.getRole()).thenReturn(UserRole.STUDENT);
+        when(userRepository.findById("student-id")).thenReturn(Optional.of(testStudent));
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new OptimisticLockingFailureException("changed"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        User updated = userService.updateUser("student-id", updateDTO);
+
+        // Assert
+        assertEquals("Updated Name", updated.getName());
+        verify(userRepository, times(2)).save(any(User.class));
+    }
+
     // ==================== DELETE Tests ====================
+    // Deletes go through MongoTemplate (deleteOne / $in), so these tests work on real documents
+
+    private void storeUser(String id) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(id)), User.class);
+        User user = new User(id + "@delete.service.com", "Delete Tester", UserRole.STUDENT);
+        user.setId(id);
+        mongoTemplate.insert(user);
+    }
+
+    private boolean userStored(String id) {
+        return mongoTemplate.exists(Query.query(Criteria.where("id").is(id)), User.class);
+    }
 
     @Test
     void testDeleteUser_Success() {
         // Arrange
-        when(userRepository.existsById("admin-id")).thenReturn(true);
-        doNothing().when(userRepository).deleteById("admin-id");
+        storeUser("delete-id");
 
         // Act
-        assertDoesNotThrow(() -> userService.deleteUser("admin-id"));
+        assertDoesNotThrow(() -> userService.deleteUser("delete-id"));
 
-        // Assert
-        verify(userRepository, times(1)).existsById("admin-id");
-        verify(userRepository, times(1)).deleteById("admin-id");
+        // Assert - one deleteOne, no existence check
+        assertFalse(userStored("delete-id"));
+        verify(userRepository, never()).existsById(anyString());
+        verify(userRepository, never()).deleteById(anyString());
     }
 
     @Test
     void testDeleteUser_NotFound_ThrowsException() {
-        // Arrange
-        when(userRepository.existsById("unknown")).thenReturn(false);
-
         // Act & Assert
         NoSuchElementException exception = assertThrows(
             NoSuchElementException.class,
@@ -333,17 +493,43 @@ class UserServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("User mit ID unknown nicht gefunden"));
-        verify(userRepository, never()).deleteById(anyString());
     }
 
     @Test
     void testDeleteUser_NullId_ThrowsException() {
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> userService.deleteUser(null));
+    }
+
+    @Test
+    void testDeleteUsers_DeletesKnownIds() {
         // Arrange
-        when(userRepository.existsById(null)).thenReturn(false);
+        storeUser("delete-1");
+        storeUser("delete-2");
+
+        // Act
+        long deleted = userService.deleteUsers(List.of("delete-1", "delete-2", "unknown"));
+
+        // Assert - unknown ids are skipped
+        assertEquals(2, deleted);
+        assertFalse(userStored("delete-1"));
+        assertFalse(userStored("delete-2"));
+    }
 
+    @Test
+    void testDeleteUsers_EmptyIds_ThrowsException() {
         // Act & Assert
-        assertThrows(NoSuchElementException.class, () -> userService.deleteUser(null));
-        verify(userRepository, never()).deleteById(anyString());
+        assertThrows(BadRequestException.class, () -> userService.deleteUsers(List.of()));
+        assertThrows(BadRequestException.class, () -> userService.deleteUsers(null));
+    }
+
+    @Test
+    void testDeleteUsers_TooManyIds_ThrowsException() {
+        // Arrange
+        List<String> ids = Collections.nCopies(BatchDeletes.MAX_IDS + 1, "delete-1");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> userService.deleteUsers(ids));
     }
 
     // ==================== Security Context Tests ====================
@@ -441,6 +627,31 @@ class UserServiceTest {
         SecurityContextHolder.clearContext();
     }
 
+    @Test
+    void testUserHasRole_WithParsedRoles_DoesNotReadClaim() {
+        // Arrange - authentication as created by UserRolesAuthenticationConverter
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getSubject()).thenReturn("auth0|mentor");
+        UserRolesAuthentication authentication =
+                new UserRolesAuthentication(jwt, Collections.emptyList(), EnumSet.of(UserRole.MENTOR));
+
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        // Act
+        boolean hasAdmin = userService.userHasRole("ADMIN");
+        boolean hasMentor = userService.userHasRole("MENTOR");
+
+        // Assert
+        assertFalse(hasAdmin);
+        assertTrue(hasMentor);
+        verify(jwt, never()).getClaimAsStringList(anyString());
+
+        // Cleanup
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void testGetEmail_Success() {
         // Arrange - Mock JWT with email